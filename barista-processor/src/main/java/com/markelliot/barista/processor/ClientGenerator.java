@@ -0,0 +1,125 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.processor;
+
+import com.google.common.base.CaseFormat;
+import com.markelliot.barista.HttpMethod;
+import com.markelliot.barista.authz.AuthToken;
+import com.markelliot.barista.client.ClientRuntime;
+import com.markelliot.barista.client.ResponseType;
+import com.markelliot.barista.processor.EndpointHandlerGenerator.EndpointHandlerDefinition;
+import com.markelliot.barista.processor.EndpointHandlerGenerator.ParameterDefinition;
+import com.markelliot.barista.processor.EndpointHandlerGenerator.ParameterDefinition.ParamType;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import java.util.Collection;
+import javax.lang.model.element.Modifier;
+
+/**
+ * Generates a typed client for the endpoints of a resource class, with one method per endpoint
+ * mirroring the endpoint's signature, except that auth tokens are passed unverified.
+ */
+public final class ClientGenerator {
+    private ClientGenerator() {}
+
+    public static JavaFile generate(ClassName className, Collection<EndpointHandlerDefinition> handlers) {
+        TypeSpec.Builder client = TypeSpec.classBuilder(clientClassName(className))
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addField(ClientRuntime.class, "runtime", Modifier.PRIVATE, Modifier.FINAL)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PUBLIC)
+                        .addParameter(ClientRuntime.class, "runtime")
+                        .addStatement("this.$N = $N", "runtime", "runtime")
+                        .build());
+        for (EndpointHandlerDefinition handler : handlers) {
+            if (handler.returnType() == EndpointHandlerDefinition.ReturnType.OBJECT) {
+                client.addField(responseTypeField(handler));
+            }
+            client.addMethod(generateClientMethod(handler));
+        }
+        return JavaFile.builder(className.packageName(), client.build()).build();
+    }
+
+    /** Captures the response type once, rather than on every call. */
+    private static FieldSpec responseTypeField(EndpointHandlerDefinition definition) {
+        TypeName responseType = definition.responseClassName().box();
+        return FieldSpec.builder(
+                        ParameterizedTypeName.get(ClassName.get(ResponseType.class), responseType),
+                        responseTypeFieldName(definition),
+                        Modifier.PRIVATE,
+                        Modifier.STATIC,
+                        Modifier.FINAL)
+                .initializer("new $T<$T>() {}", ResponseType.class, responseType)
+                .build();
+    }
+
+    private static MethodSpec generateClientMethod(EndpointHandlerDefinition definition) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder(definition.methodName())
+                .addModifiers(Modifier.PUBLIC)
+                .returns(definition.responseClassName());
+        for (ParameterDefinition param : definition.parameters()) {
+            method.addParameter(
+                    param.type() == ParamType.TOKEN ? ClassName.get(AuthToken.class) : param.className(),
+                    param.argumentName());
+        }
+        CodeBlock request = request(definition);
+        return switch (definition.returnType()) {
+            case BYTE_STREAM -> throw new IllegalStateException("Unsupported");
+            case EMPTY -> method.addStatement("$N.call($L)", "runtime", request).build();
+            case OBJECT -> method.addStatement(
+                            "return $N.call($L, $N)", "runtime", request, responseTypeFieldName(definition))
+                    .build();
+            case REDIRECT -> method.addStatement("return $N.redirect($L)", "runtime", request)
+                    .build();
+        };
+    }
+
+    private static CodeBlock request(EndpointHandlerDefinition definition) {
+        CodeBlock.Builder request = CodeBlock.builder()
+                .add(
+                        "$N.request($T.$N, $S)",
+                        "runtime",
+                        HttpMethod.class,
+                        definition.httpMethod().toString(),
+                        definition.route());
+        for (ParameterDefinition param : definition.parameters()) {
+            switch (param.type()) {
+                case PATH -> request.add(".pathParam($S, $N)", param.httpName(), param.argumentName());
+                case QUERY -> request.add(".queryParam($S, $N)", param.httpName(), param.argumentName());
+                case HEADER -> request.add(".header($S, $N)", param.httpName(), param.argumentName());
+                case COOKIE -> request.add(".cookie($S, $N)", param.httpName(), param.argumentName());
+                case TOKEN -> request.add(".authToken($N)", param.argumentName());
+                case BODY -> request.add(".body($N)", param.argumentName());
+            }
+        }
+        return request.build();
+    }
+
+    private static String responseTypeFieldName(EndpointHandlerDefinition definition) {
+        return CaseFormat.LOWER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, definition.methodName()) + "_RESPONSE";
+    }
+
+    private static ClassName clientClassName(ClassName className) {
+        return ClassName.get(className.packageName(), className.simpleName() + "Client");
+    }
+}
@@ -19,7 +19,6 @@ package com.markelliot.barista.processor;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
 import com.markelliot.barista.HttpMethod;
-import com.markelliot.barista.SerDe.ByteRepr;
 import com.markelliot.barista.authz.VerifiedAuthToken;
 import com.markelliot.barista.endpoints.EndpointHandler;
 import com.markelliot.barista.endpoints.EndpointRuntime;
@@ -166,15 +165,12 @@ public final class EndpointHandlerGenerator {
                 .findAny()
                 .ifPresentOrElse(
                         bodyParam -> handler.add(CodeBlock.builder()
-                                .beginControlFlow(
-                                        "$N.getRequestReceiver().receiveFullString((bodyExchange, body_) ->",
-                                        "exchange")
+                                .beginControlFlow("$N.receiveBody($N, (bodyExchange, body_) ->", "runtime", "exchange")
                                 .addStatement(
-                                        "$T $N = $N.serde().deserialize(new $T(body_), $T.class)",
+                                        "$T $N = $N.deserialize(bodyExchange, body_, $T.class)",
                                         bodyParam.className(),
                                         bodyParam.argumentName(),
                                         "runtime",
-                                        ByteRepr.class,
                                         bodyParam.className())
                                 .add(returnStatement)
                                 .endControlFlow(")")
@@ -260,7 +256,8 @@ public final class EndpointHandlerGenerator {
             String route,
             HttpMethod httpMethod,
             Set<ParameterDefinition> parameters,
-            ReturnType returnType) {
+            ReturnType returnType,
+            TypeName responseClassName) {
 
         public EndpointHandlerDefinition {
             Preconditions.checkArgument(
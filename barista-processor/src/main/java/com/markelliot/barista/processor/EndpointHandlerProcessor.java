@@ -24,6 +24,7 @@ import com.google.googlejavaformat.java.JavaFormatterOptions.Style;
 import com.markelliot.barista.annotations.Param;
 import com.markelliot.barista.authz.VerifiedAuthToken;
 import com.markelliot.barista.endpoints.HttpRedirect;
+import com.markelliot.barista.endpoints.RouteTemplate;
 import com.markelliot.barista.processor.EndpointHandlerGenerator.EndpointHandlerDefinition;
 import com.markelliot.barista.processor.EndpointHandlerGenerator.EndpointHandlerDefinition.HttpMethod;
 import com.markelliot.barista.processor.EndpointHandlerGenerator.EndpointHandlerDefinition.ReturnType;
@@ -38,8 +39,12 @@ import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Filer;
@@ -54,7 +59,9 @@ import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
 import javax.tools.Diagnostic;
+import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 
 @AutoService(Processor.class)
 @SupportedAnnotationTypes({
@@ -65,6 +72,8 @@ import javax.tools.JavaFileObject;
 })
 @SupportedSourceVersion(SourceVersion.RELEASE_17)
 public final class EndpointHandlerProcessor extends AbstractProcessor {
+    /** Endpoint methods by method and route shape, across all rounds, to detect conflicting routes. */
+    private final Map<String, ExecutableElement> routes = new HashMap<>();
 
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
@@ -123,10 +132,12 @@ public final class EndpointHandlerProcessor extends AbstractProcessor {
                 error("Authed.Get is only applicable for methods", element);
             } else {
                 ExecutableElement methodElement = (ExecutableElement) element;
-                definitions.add(processMethod(
-                        methodElement,
-                        AnnotationHelpers.httpMethod(methodElement),
-                        AnnotationHelpers.path(methodElement)));
+                HttpMethod httpMethod = AnnotationHelpers.httpMethod(methodElement);
+                Optional<RouteTemplate> route =
+                        checkRoute(methodElement, httpMethod, AnnotationHelpers.path(methodElement));
+                if (route.isPresent()) {
+                    definitions.add(processMethod(methodElement, httpMethod, route.get()));
+                }
 
                 // TODO(markelliot): lint method parameters
             }
@@ -135,16 +146,58 @@ public final class EndpointHandlerProcessor extends AbstractProcessor {
         Set<JavaFile> filesFromRound = new LinkedHashSet<>();
         Multimaps.index(definitions, EndpointHandlerDefinition::className)
                 .asMap()
-                .forEach((resource, handlers) ->
-                        filesFromRound.add(EndpointHandlerGenerator.generate(resource, handlers)));
+                .forEach((resource, handlers) -> {
+                    filesFromRound.add(EndpointHandlerGenerator.generate(resource, handlers));
+                    filesFromRound.add(ClientGenerator.generate(resource, handlers));
+                    writeManifest(resource, handlers);
+                });
         return filesFromRound;
     }
 
+    /**
+     * Returns the parsed route of an endpoint method, or reports an error and returns empty if the
+     * route is malformed or conflicts with that of another endpoint method in this compilation.
+     */
+    private Optional<RouteTemplate> checkRoute(ExecutableElement methodElement, HttpMethod httpMethod, String path) {
+        RouteTemplate route;
+        try {
+            route = RouteTemplate.parse(path);
+        } catch (IllegalArgumentException e) {
+            error(e.getMessage(), methodElement);
+            return Optional.empty();
+        }
+        ExecutableElement existing = routes.putIfAbsent(httpMethod + " " + route.shape(), methodElement);
+        if (existing != null && !existing.equals(methodElement)) {
+            error(
+                    String.format(
+                            "Route %s %s conflicts with the route of %s#%s",
+                            httpMethod, path, existing.getEnclosingElement(), existing.getSimpleName()),
+                    methodElement);
+            return Optional.empty();
+        }
+        return Optional.of(route);
+    }
+
+    private void writeManifest(ClassName resource, Collection<EndpointHandlerDefinition> handlers) {
+        TypeElement resourceElement = processingEnv.getElementUtils().getTypeElement(resource.canonicalName());
+        try {
+            FileObject manifest = processingEnv
+                    .getFiler()
+                    .createResource(
+                            StandardLocation.CLASS_OUTPUT, "", ManifestGenerator.path(resource), resourceElement);
+            try (Writer writer = manifest.openWriter()) {
+                writer.write(ManifestGenerator.generate(resource, handlers));
+            }
+        } catch (IOException e) {
+            error("Unable to write endpoint manifest: " + e, resourceElement);
+        }
+    }
+
     private EndpointHandlerDefinition processMethod(
-            ExecutableElement methodElement, HttpMethod httpMethod, String path) {
+            ExecutableElement methodElement, HttpMethod httpMethod, RouteTemplate route) {
         TypeElement classElement = (TypeElement) methodElement.getEnclosingElement();
         TypeName returnType = ClassName.get(methodElement.getReturnType());
-        Set<String> pathParamNames = pathParamNames(path);
+        List<String> pathParamNames = route.parameters();
         Set<ParameterDefinition> parameters = new LinkedHashSet<>();
         for (VariableElement paramElement : methodElement.getParameters()) {
             String paramName = paramElement.getSimpleName().toString();
@@ -177,22 +230,11 @@ public final class EndpointHandlerProcessor extends AbstractProcessor {
         return new EndpointHandlerDefinition(
                 ClassName.get(classElement),
                 methodElement.getSimpleName().toString(),
-                path,
+                route.template(),
                 httpMethod,
                 parameters,
-                toReturnType(returnType));
-    }
-
-    private static Set<String> pathParamNames(String route) {
-        Set<String> names = new LinkedHashSet<>();
-        int start = 0;
-        int index = -1;
-        while ((index = route.indexOf('{', start)) != -1) {
-            int endIndex = route.indexOf('}', index + 1);
-            names.add(route.substring(index + 1, endIndex));
-            start = endIndex + 1;
-        }
-        return names;
+                toReturnType(returnType),
+                returnType);
     }
 
     private static ReturnType toReturnType(TypeName returnType) {
@@ -0,0 +1,82 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.processor;
+
+import com.markelliot.barista.processor.EndpointHandlerGenerator.EndpointHandlerDefinition;
+import com.markelliot.barista.processor.EndpointHandlerGenerator.ParameterDefinition;
+import com.squareup.javapoet.ClassName;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Generates a JSON manifest of the endpoints of a resource class, listing each endpoint's method,
+ * route, parameters and response type, for tools that need a class's routes without loading it.
+ */
+public final class ManifestGenerator {
+    private ManifestGenerator() {}
+
+    /** Returns the resource path of the manifest of {@code className}'s endpoints. */
+    public static String path(ClassName className) {
+        return "META-INF/barista/endpoints/" + className.reflectionName() + ".json";
+    }
+
+    public static String generate(ClassName className, Collection<EndpointHandlerDefinition> handlers) {
+        StringBuilder json = new StringBuilder().append("{\"class\":");
+        string(json, className.reflectionName()).append(",\"endpoints\":[");
+        boolean firstHandler = true;
+        for (EndpointHandlerDefinition handler : handlers) {
+            json.append(firstHandler ? "" : ",").append("{\"name\":");
+            string(json, handler.methodName()).append(",\"method\":");
+            string(json, handler.httpMethod().toString()).append(",\"route\":");
+            string(json, handler.route()).append(",\"parameters\":[");
+            boolean firstParam = true;
+            for (ParameterDefinition param : handler.parameters()) {
+                json.append(firstParam ? "" : ",").append("{\"name\":");
+                string(json, param.argumentName()).append(",\"in\":");
+                string(json, param.type().toString().toLowerCase(Locale.ROOT));
+                if (param.httpName() != null) {
+                    string(json.append(",\"httpName\":"), param.httpName());
+                }
+                string(json.append(",\"type\":"), param.className().toString()).append('}');
+                firstParam = false;
+            }
+            json.append("],\"returns\":");
+            string(json, handler.responseClassName().toString()).append('}');
+            firstHandler = false;
+        }
+        return json.append("]}\n").toString();
+    }
+
+    private static StringBuilder string(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                default -> {
+                    if (ch < 0x20) {
+                        json.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        json.append(ch);
+                    }
+                }
+            }
+        }
+        return json.append('"');
+    }
+}
@@ -17,8 +17,12 @@
 package com.markelliot.barista.processor;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.markelliot.barista.Server;
+import com.markelliot.barista.authz.AuthTokens;
+import com.markelliot.barista.client.ClientRuntime;
+import com.markelliot.barista.client.RemoteException;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -54,6 +58,16 @@ public final class TestFooServer {
         assertResponse("http://localhost:8080/foo/open/echo/hellother", 200, "\"hellother\"");
     }
 
+    @Test
+    void testGeneratedClient() {
+        FooResourceClient client = new FooResourceClient(ClientRuntime.create(URI.create("http://localhost:8080")));
+        assertThat(client.openGet()).isEqualTo("Hello, World!");
+        assertThat(client.openEcho("hello there")).isEqualTo("hello there");
+        assertThatThrownBy(() -> client.authedGet(AuthTokens.of("invalid")))
+                .isInstanceOfSatisfying(
+                        RemoteException.class, e -> assertThat(e.statusCode()).isEqualTo(403));
+    }
+
     private void assertResponse(String uri, int statusCode, String expectedResponseText)
             throws IOException, InterruptedException {
         HttpResponse<String> helloWorldResult = CLIENT.send(
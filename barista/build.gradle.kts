@@ -40,6 +40,43 @@ tasks.test {
     }
 }
 
+// AppCDS requires classes to be loaded from jars, so the benchmark runs from jars rather than the
+// test runtime classpath's class directories
+val benchmarkJar by tasks.registering(Jar::class) {
+    archiveClassifier.set("benchmark")
+    from(sourceSets.test.get().output)
+}
+val benchmarkClasspath = files(tasks.jar, benchmarkJar, configurations.testRuntimeClasspath)
+val cdsArchive = layout.buildDirectory.file("cds/startup-benchmark.jsa")
+
+val cdsTrainingRun by tasks.registering(JavaExec::class) {
+    description = "Records a class data sharing archive from a training run of the benchmark server."
+    classpath = benchmarkClasspath
+    mainClass.set("com.markelliot.barista.StartupBenchmark")
+    args("server")
+    systemProperty("barista.trainingRun", "true")
+    outputs.file(cdsArchive)
+    doFirst {
+        val archive = cdsArchive.get().asFile
+        archive.parentFile.mkdirs()
+        jvmArgs("-XX:ArchiveClassesAtExit=$archive")
+    }
+}
+
+tasks.register<JavaExec>("startupBenchmark") {
+    description = "Compares server startup time with and without the training run's archive."
+    dependsOn(cdsTrainingRun)
+    classpath = benchmarkClasspath
+    mainClass.set("com.markelliot.barista.StartupBenchmark")
+    args(cdsArchive.get().asFile)
+}
+
+tasks.register<JavaExec>("handshakeBenchmark") {
+    description = "Compares full TLS handshake throughput for RSA and ECDSA server keys."
+    classpath = sourceSets.test.get().runtimeClasspath
+    mainClass.set("com.markelliot.barista.tls.HandshakeBenchmark")
+}
+
 java {
     withJavadocJar()
     withSourcesJar()
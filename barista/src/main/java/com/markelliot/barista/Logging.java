@@ -16,7 +16,10 @@
 
 package com.markelliot.barista;
 
+import com.google.common.base.Preconditions;
 import java.net.URI;
+import java.util.Locale;
+import java.util.Optional;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.appender.ConsoleAppender;
@@ -30,26 +33,86 @@ import org.apache.logging.log4j.core.config.builder.api.LayoutComponentBuilder;
 import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 
+/**
+ * Barista's built-in Log4j configuration, used unless the application supplies its own.
+ *
+ * <p>Log events are handed to a bounded queue and written by a background thread, so request
+ * threads never wait on stdout or disk; the pattern layout formats into reused buffers. The
+ * configuration is read from system properties:
+ *
+ * <ul>
+ *   <li>{@code barista.logging.queueSize}: the number of events buffered (default 8192)
+ *   <li>{@code barista.logging.queueFullPolicy}: {@code block} to make logging threads wait for
+ *       room when the queue is full (default), or {@code discard} to drop their events instead
+ *   <li>{@code barista.logging.file}: a file to log to instead of stdout, rolled over every 100 MB
+ *       with up to 10 old files kept alongside it
+ * </ul>
+ */
 @Plugin(name = "BaristaLogging", category = ConfigurationFactory.CATEGORY)
 @Order(1_000_000)
 final class Logging extends ConfigurationFactory {
 
     private static final String STDOUT = "stdout";
+    private static final String FILE = "file";
+    private static final String ASYNC = "async";
     private static final String[] SUPPORTED_TYPES = {"*"};
 
-    static BuiltConfiguration createConfiguration(String name, ConfigurationBuilder<BuiltConfiguration> builder) {
+    static final String QUEUE_SIZE_PROPERTY = "barista.logging.queueSize";
+    static final String QUEUE_FULL_POLICY_PROPERTY = "barista.logging.queueFullPolicy";
+    static final String FILE_PROPERTY = "barista.logging.file";
+
+    enum QueueFullPolicy {
+        BLOCK,
+        DISCARD
+    }
+
+    record Settings(int queueSize, QueueFullPolicy queueFullPolicy, Optional<String> file) {
+        Settings {
+            Preconditions.checkArgument(queueSize > 0, "Logging queue size must be positive");
+        }
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger(QUEUE_SIZE_PROPERTY, 8192),
+                    QueueFullPolicy.valueOf(System.getProperty(QUEUE_FULL_POLICY_PROPERTY, "block")
+                            .toUpperCase(Locale.ROOT)),
+                    Optional.ofNullable(System.getProperty(FILE_PROPERTY)));
+        }
+    }
+
+    static BuiltConfiguration createConfiguration(
+            String name, ConfigurationBuilder<BuiltConfiguration> builder, Settings settings) {
         builder.setStatusLevel(Level.ERROR);
         builder.setConfigurationName(name);
 
         LayoutComponentBuilder layout =
                 builder.newLayout("PatternLayout").addAttribute("pattern", "%d [%t] %level: %msg%n%throwable");
 
-        AppenderComponentBuilder appenderBuilder = builder.newAppender(STDOUT, "CONSOLE")
-                .addAttribute("target", ConsoleAppender.Target.SYSTEM_OUT)
+        // the async appender flushes at the end of each batch it drains, so appenders needn't flush
+        // on every event
+        AppenderComponentBuilder appenderBuilder = settings.file()
+                .map(file -> builder.newAppender(FILE, "RollingRandomAccessFile")
+                        .addAttribute("fileName", file)
+                        .addAttribute("filePattern", file + ".%i")
+                        .addAttribute("immediateFlush", false)
+                        .addComponent(builder.newComponent("SizeBasedTriggeringPolicy")
+                                .addAttribute("size", "100MB"))
+                        .addComponent(
+                                builder.newComponent("DefaultRolloverStrategy").addAttribute("max", 10)))
+                .orElseGet(() -> builder.newAppender(STDOUT, "CONSOLE")
+                        .addAttribute("target", ConsoleAppender.Target.SYSTEM_OUT)
+                        .addAttribute("immediateFlush", false))
                 .add(layout);
 
+        AppenderComponentBuilder asyncBuilder = builder.newAppender(ASYNC, "Async")
+                .addAttribute("bufferSize", settings.queueSize())
+                .addAttribute("blocking", settings.queueFullPolicy() == QueueFullPolicy.BLOCK)
+                .addAttribute("includeLocation", false)
+                .addComponent(builder.newAppenderRef(appenderBuilder.getName()));
+
         builder.add(appenderBuilder);
-        builder.add(builder.newRootLogger(Level.INFO).add(builder.newAppenderRef(appenderBuilder.getName())));
+        builder.add(asyncBuilder);
+        builder.add(builder.newRootLogger(Level.INFO, false).add(builder.newAppenderRef(asyncBuilder.getName())));
 
         return builder.build();
     }
@@ -63,7 +126,7 @@ final class Logging extends ConfigurationFactory {
     public Configuration getConfiguration(
             final LoggerContext loggerContext, final String name, final URI configLocation) {
         ConfigurationBuilder<BuiltConfiguration> builder = newConfigurationBuilder();
-        return createConfiguration(name, builder);
+        return createConfiguration(name, builder, Settings.fromSystemProperties());
     }
 
     @Override
@@ -0,0 +1,168 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.AttachmentKey;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each phase of handling a request took, using monotonic timestamps.
+ *
+ * <p>Handlers time a phase by reading {@link System#nanoTime()} when it begins and passing that
+ * value to {@link #record(Phase, long)} when it ends. Timings are reported on completion of
+ * sampled requests alongside their spans, one line per request.
+ */
+public final class RequestTimings {
+    private static final AttachmentKey<RequestTimings> KEY = AttachmentKey.create(RequestTimings.class);
+
+    public enum Phase {
+        /** Waiting for a worker thread after being dispatched from an IO thread. */
+        QUEUE,
+        /** Verifying the request's auth token. */
+        AUTH,
+        /** Receiving the request body. */
+        RECEIVE,
+        /** Deserializing the request body. */
+        DESERIALIZE,
+        /** Running the endpoint's method. */
+        HANDLER,
+        /** Serializing the response body. */
+        SERIALIZE;
+
+        private final String label = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long startNanos;
+    private final long[] phaseNanos = new long[PHASES.length];
+    private long dispatchedNanos = -1;
+    private long totalNanos = -1;
+    private long cpuNanos = -1;
+    private long allocatedBytes = -1;
+    private String traceId;
+
+    private RequestTimings(long startNanos) {
+        this.startNanos = startNanos;
+        Arrays.fill(phaseNanos, -1);
+    }
+
+    /** Returns the timings of {@code exchange}, starting them now if they weren't already. */
+    public static RequestTimings of(HttpServerExchange exchange) {
+        RequestTimings timings = exchange.getAttachment(KEY);
+        if (timings == null) {
+            timings = new RequestTimings(System.nanoTime());
+            exchange.putAttachment(KEY, timings);
+        }
+        return timings;
+    }
+
+    /** Adds the time elapsed since {@code startNanos} to {@code phase}. */
+    public void record(Phase phase, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        int index = phase.ordinal();
+        phaseNanos[index] = phaseNanos[index] < 0 ? elapsed : phaseNanos[index] + elapsed;
+    }
+
+    /** Returns the recorded duration of {@code phase} in nanoseconds, or -1 if it didn't occur. */
+    public long nanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Adds CPU time and allocations of the request's endpoint, as measured by {@link
+     * com.markelliot.barista.endpoints.EndpointRuntime} when resource accounting is enabled.
+     */
+    public void recordResources(long cpu, long allocated) {
+        cpuNanos = Math.max(cpuNanos, 0) + cpu;
+        allocatedBytes = Math.max(allocatedBytes, 0) + allocated;
+    }
+
+    /** Returns the CPU time spent running the request's endpoint in nanoseconds, or -1 if unmeasured. */
+    public long cpuNanos() {
+        return cpuNanos;
+    }
+
+    /** Returns the bytes allocated by the request's endpoint, or -1 if unmeasured. */
+    public long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /** Returns the nanoseconds elapsed since the request started. */
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /** Notes that the request is being dispatched to a worker thread. */
+    public void dispatched() {
+        dispatchedNanos = System.nanoTime();
+    }
+
+    /**
+     * Records the {@link Phase#QUEUE} phase if the request was dispatched and hasn't yet started,
+     * returning whether it did.
+     */
+    public boolean started() {
+        if (dispatchedNanos < 0) {
+            return false;
+        }
+        record(Phase.QUEUE, dispatchedNanos);
+        dispatchedNanos = -1;
+        return true;
+    }
+
+    /** Marks the request complete; {@code traceId} identifies it in the reported timings. */
+    public void complete(String traceId) {
+        this.traceId = traceId;
+        this.totalNanos = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Returns a line of the form {@code timings traceId=<id> total=<us> queue=<us> ...}, ending with
+     * {@code cpu=<us> alloc=<bytes>B} if resources were measured.
+     */
+    @Override
+    public String toString() {
+        StringBuilder line = new StringBuilder(128)
+                .append("timings traceId=")
+                .append(traceId)
+                .append(" total=")
+                .append(TimeUnit.NANOSECONDS.toMicros(totalNanos))
+                .append("us");
+        for (Phase phase : PHASES) {
+            long nanos = phaseNanos[phase.ordinal()];
+            if (nanos >= 0) {
+                line.append(' ')
+                        .append(phase.label)
+                        .append('=')
+                        .append(TimeUnit.NANOSECONDS.toMicros(nanos))
+                        .append("us");
+            }
+        }
+        if (cpuNanos >= 0) {
+            line.append(" cpu=")
+                    .append(TimeUnit.NANOSECONDS.toMicros(cpuNanos))
+                    .append("us alloc=")
+                    .append(allocatedBytes)
+                    .append('B');
+        }
+        return line.toString();
+    }
+}
@@ -25,12 +25,28 @@ import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.google.common.net.MediaType;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 
 public interface SerDe {
     <T> ByteRepr serialize(T any);
 
     <T> T deserialize(ByteRepr bytes, Class<T> objClass);
 
+    /**
+     * Reads a value of {@code type}, which may be generic, from {@code in}. The default reads the
+     * stream fully and supports only class types; implementations may deserialize as the stream is
+     * read.
+     */
+    @SuppressWarnings("unchecked")
+    default <T> T deserialize(InputStream in, Type type) throws IOException {
+        if (!(type instanceof Class<?> objClass)) {
+            throw new IllegalArgumentException("Unsupported type: " + type);
+        }
+        return (T) deserialize(new ByteRepr(new String(in.readAllBytes(), StandardCharsets.UTF_8)), objClass);
+    }
+
     String contentType();
 
     record ByteRepr(String raw) {}
@@ -65,6 +81,11 @@ public interface SerDe {
             }
         }
 
+        @Override
+        public <T> T deserialize(InputStream in, Type type) throws IOException {
+            return mapper.readValue(in, mapper.getTypeFactory().constructType(type));
+        }
+
         @Override
         public String contentType() {
             return MediaType.JSON_UTF_8.toString();
@@ -17,67 +17,211 @@
 package com.markelliot.barista;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Suppliers;
+import com.google.common.io.Closer;
 import com.markelliot.barista.authz.Authz;
 import com.markelliot.barista.endpoints.EndpointHandler;
+import com.markelliot.barista.endpoints.EndpointRuntime;
 import com.markelliot.barista.endpoints.Endpoints;
+import com.markelliot.barista.endpoints.ExceptionStatuses;
+import com.markelliot.barista.endpoints.SlowRequestDetector;
+import com.markelliot.barista.exporters.AccessLogExporter;
+import com.markelliot.barista.exporters.SpanExporter;
+import com.markelliot.barista.handlers.AccessLogHandler;
 import com.markelliot.barista.handlers.CorsHandler;
+import com.markelliot.barista.handlers.DelegatingHandler;
 import com.markelliot.barista.handlers.DispatchFromIoThreadHandler;
+import com.markelliot.barista.handlers.DrainHandler;
 import com.markelliot.barista.handlers.EndpointHandlerBuilder;
 import com.markelliot.barista.handlers.HandlerChain;
+import com.markelliot.barista.handlers.PrometheusHandler;
+import com.markelliot.barista.handlers.Readiness;
+import com.markelliot.barista.handlers.ReadinessHandler;
+import com.markelliot.barista.handlers.RequestMetricsHandler;
+import com.markelliot.barista.handlers.RouteTable;
 import com.markelliot.barista.handlers.StrictTransportSecurityHandler;
 import com.markelliot.barista.handlers.TracingHandler;
+import com.markelliot.barista.metrics.IoThreadMonitor;
+import com.markelliot.barista.metrics.MetricsRegistry;
+import com.markelliot.barista.metrics.RequestMetrics;
+import com.markelliot.barista.metrics.WorkerMetrics;
+import com.markelliot.barista.sampling.RouteSampler;
+import com.markelliot.barista.sampling.TailSampler;
+import com.markelliot.barista.tls.CipherSuites;
+import com.markelliot.barista.tls.TlsMetrics;
 import com.markelliot.barista.tls.TransportLayerSecurity;
+import com.markelliot.barista.tls.TransportLayerSecurity.TrustLoading;
+import com.markelliot.barista.tracing.CompletedSpan;
 import com.markelliot.barista.tracing.Spans;
+import com.markelliot.barista.unixsocket.UnixSocketListener;
+import com.markelliot.barista.warmup.WarmUp;
+import com.markelliot.barista.warmup.WarmUpRequest;
 import io.undertow.Undertow;
 import io.undertow.Undertow.ListenerBuilder;
 import io.undertow.Undertow.ListenerType;
+import io.undertow.UndertowOptions;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.handlers.GracefulShutdownHandler;
+import io.undertow.server.handlers.ResponseCodeHandler;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xnio.OptionMap;
+import org.xnio.Options;
+import org.xnio.Sequence;
+import org.xnio.XnioWorker;
 
 public final class Server {
     private static final Logger log = LoggerFactory.getLogger(Server.class);
-    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofMinutes(1);
+    /**
+     * When set to {@code true}, {@link Builder#start} stops the server again once it has started and
+     * replayed its warm-up requests, and returns the stopped server. When the application's main
+     * method then returns, a JVM started with {@code -XX:ArchiveClassesAtExit} records a class data
+     * sharing archive of the classes it loaded.
+     */
+    public static final String TRAINING_RUN_PROPERTY = "barista.trainingRun";
 
     private final GracefulShutdownHandler shutdownHandler;
     private final Undertow undertow;
+    private final Closer closer;
+    private final TlsMetrics tlsMetrics;
+    private final MetricsRegistry metrics;
+    private final Readiness readiness;
+    private final Duration shutdownDelay;
+    private final Duration shutdownTimeout;
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final Thread shutdownHook = new Thread(this::stop);
 
-    private Server(GracefulShutdownHandler shutdownHandler, Undertow undertow) {
+    private Server(
+            GracefulShutdownHandler shutdownHandler,
+            Undertow undertow,
+            Closer closer,
+            TlsMetrics tlsMetrics,
+            MetricsRegistry metrics,
+            Readiness readiness,
+            Duration shutdownDelay,
+            Duration shutdownTimeout) {
         this.shutdownHandler = shutdownHandler;
         this.undertow = undertow;
+        this.closer = closer;
+        this.tlsMetrics = tlsMetrics;
+        this.metrics = metrics;
+        this.readiness = readiness;
+        this.shutdownDelay = shutdownDelay;
+        this.shutdownTimeout = shutdownTimeout;
 
-        Runtime.getRuntime().addShutdownHook(new Thread(this::stop));
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
     }
 
     private void start() {
         undertow.start();
     }
 
+    /**
+     * Releases everything acquired for a server that failed to start, including any listeners
+     * already bound, without the graceful shutdown of {@link #stop}.
+     */
+    private void abort() {
+        stopped.set(true);
+        Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        try {
+            undertow.stop();
+        } finally {
+            closeResources();
+        }
+    }
+
+    /**
+     * Returns the addresses this server listens on: its port, then any {@link
+     * Builder#plaintextListener additional listeners} in the order they were added, then the {@link
+     * Builder#metricsPort metrics port} if set. Ports configured as 0 are reported as bound.
+     */
+    public List<InetSocketAddress> addresses() {
+        return undertow.getListenerInfo().stream()
+                .map(listener -> (InetSocketAddress) listener.getAddress())
+                .toList();
+    }
+
+    /** Returns counts of full and resumed TLS handshakes completed by this server. */
+    public TlsMetrics tlsMetrics() {
+        return tlsMetrics;
+    }
+
+    /**
+     * Returns the registry of metrics exposed by this server, to which applications may add their
+     * own. Metrics are only served if {@link Builder#metricsRoute} or {@link Builder#metricsPort}
+     * was set.
+     */
+    public MetricsRegistry metrics() {
+        return metrics;
+    }
+
     /**
      * Manually stop the server.
      *
      * <p>It's uncommon to invoke this method because the expected use of this framework is for the
      * server to run for the lifetime of the process, and a shutdown hook to stop the server is
      * included automatically.
+     *
+     * <p>The server first reports that it is no longer ready and asks HTTP/1.1 clients to close
+     * their connections, then keeps serving requests for the configured {@link
+     * Builder#shutdownDelay shutdown delay} so load balancers can route traffic elsewhere. It then
+     * rejects new requests and waits up to the {@link Builder#shutdownTimeout shutdown timeout} for
+     * requests in flight to complete.
      */
     public void stop() {
-        shutdownHandler.shutdown();
-        shutdownHandler.addShutdownListener(shutdownSuccessful -> undertow.stop());
+        if (!stopped.compareAndSet(false, true)) {
+            return;
+        }
+        readiness.drain();
         try {
-            if (!shutdownHandler.awaitShutdown(SHUTDOWN_TIMEOUT.toMillis())) {
-                undertow.stop();
+            if (!shutdownDelay.isZero()) {
+                log.info("Draining server for {} ms before shutting down", shutdownDelay.toMillis());
+                Thread.sleep(shutdownDelay.toMillis());
+            }
+            shutdownHandler.shutdown();
+            // stop from this thread rather than a shutdown listener: listeners may run on an IO
+            // thread, and stopping waits for IO threads to terminate
+            if (!shutdownHandler.awaitShutdown(shutdownTimeout.toMillis())) {
+                log.warn(
+                        "Stopping server with requests still in flight after waiting {} ms",
+                        shutdownTimeout.toMillis());
             }
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
+        } finally {
+            try {
+                undertow.stop();
+            } finally {
+                closeResources();
+            }
+        }
+    }
+
+    private void closeResources() {
+        try {
+            closer.close();
+        } catch (IOException e) {
+            log.warn("Error while releasing server resources", e);
         }
     }
 
@@ -87,6 +231,10 @@ public final class Server {
 
     public static final class Builder {
         private int port = 8443;
+        private String host = "0.0.0.0";
+        private final List<Listener> additionalListeners = new ArrayList<>();
+        private Optional<Integer> acceptBacklog = Optional.empty();
+        private Optional<Path> unixSocket = Optional.empty();
         private final Set<EndpointHandler> endpointHandlers = new LinkedHashSet<>();
         private final Set<String> allowedOrigins = new LinkedHashSet<>();
         private SerDe serde = new SerDe.ObjectMapperSerDe();
@@ -94,19 +242,89 @@ public final class Server {
         private boolean allowAllOrigins = false;
         private boolean strictTransportSecurity = false;
         private boolean tls = true;
+        private boolean reloadTls = true;
+        private TrustLoading trustLoading = TrustLoading.EAGER;
+        private boolean tls13Only = false;
+        private Optional<List<String>> tlsCipherSuites = Optional.empty();
+        private Optional<Integer> tlsSessionCacheSize = Optional.empty();
+        private Optional<Duration> tlsSessionTimeout = Optional.empty();
         private Optional<Consumer<Request>> fallbackHandler = Optional.empty();
         private Optional<SSLContext> sslContext = Optional.empty();
-        private double tracingRate = 0.2;
+        private final RouteSampler.Builder sampling = RouteSampler.builder();
+        private boolean http2 = false;
+        private Optional<Integer> http2MaxConcurrentStreams = Optional.empty();
+        private Optional<Integer> http2InitialWindowSize = Optional.empty();
+        private Optional<Integer> http2HeaderTableSize = Optional.empty();
         private boolean enableTraceLogging = true;
+        private Optional<Path> traceLogFile = Optional.empty();
+        private Optional<Path> accessLogFile = Optional.empty();
+        private Optional<Duration> tailSamplingThreshold = Optional.empty();
+        private Optional<String> metricsRoute = Optional.empty();
+        private Optional<Integer> metricsPort = Optional.empty();
+        private Optional<Duration> ioThreadBlockedThreshold = Optional.empty();
+        private boolean resourceAccounting = false;
+        private Optional<Duration> slowRequestThreshold = Optional.empty();
+        private final ExceptionStatuses.Builder exceptionStatuses = ExceptionStatuses.builder();
+        private Optional<String> readinessRoute = Optional.empty();
+        private Duration shutdownDelay = Duration.ZERO;
+        private Duration shutdownTimeout = Duration.ofMinutes(1);
+        private final List<WarmUpRequest> warmUpRequests = new ArrayList<>();
+        private Duration warmUpTimeout = Duration.ofSeconds(30);
 
         private Builder() {}
 
+        /** Sets the server's port; 0 binds a free port, which {@link Server#addresses} reports. */
         public Builder port(int port) {
-            Preconditions.checkArgument(0 < port && port < 65536, "Port must be in range [1, 65535]");
+            Preconditions.checkArgument(0 <= port && port < 65536, "Port must be in range [0, 65535]");
             this.port = port;
             return this;
         }
 
+        /** Sets the address the server's port is bound to; defaults to all interfaces. */
+        public Builder host(String host) {
+            this.host = Objects.requireNonNull(host);
+            return this;
+        }
+
+        /**
+         * Additionally serves plain HTTP on {@code port} of {@code host}, such as an internal
+         * interface alongside a public TLS port.
+         */
+        public Builder plaintextListener(String host, int port) {
+            additionalListeners.add(new Listener(host, port, false));
+            return this;
+        }
+
+        /**
+         * Additionally serves HTTPS on {@code port} of {@code host}, with the same TLS configuration
+         * as the server's port would have.
+         */
+        public Builder tlsListener(String host, int port) {
+            additionalListeners.add(new Listener(host, port, true));
+            return this;
+        }
+
+        /**
+         * Additionally serves plaintext HTTP/1.1 on a Unix domain socket at {@code path}, so that
+         * sidecars and other local clients skip the loopback TCP stack. Replaces any socket left at
+         * the path by a previous process, and removes the socket when the server stops.
+         */
+        public Builder unixSocket(Path path) {
+            this.unixSocket = Optional.of(path);
+            return this;
+        }
+
+        /**
+         * Sets how many connections the kernel queues for each listener before they are accepted,
+         * which absorbs bursts of new connections. Defaults to Undertow's 1000; the kernel may cap it
+         * (see {@code net.core.somaxconn} on Linux).
+         */
+        public Builder acceptBacklog(int backlog) {
+            Preconditions.checkArgument(backlog > 0, "Accept backlog must be positive");
+            this.acceptBacklog = Optional.of(backlog);
+            return this;
+        }
+
         public Builder fallback(Consumer<Request> fallback) {
             this.fallbackHandler = Optional.of(fallback);
             return this;
@@ -151,12 +369,109 @@ public final class Server {
             return this;
         }
 
+        /**
+         * Disables watching {@code var/security} for changes to key and trust material.
+         *
+         * <p>By default, Barista reloads TLS material when files in {@code var/security} change so
+         * that certificates can be rotated without restarting. Has no effect when a custom {@link
+         * SSLContext} is provided.
+         */
+        public Builder disableTlsReloading() {
+            this.reloadTls = false;
+            return this;
+        }
+
+        /**
+         * Defers parsing the trust material in {@code var/security} until a peer certificate must
+         * first be verified, which saves building the trust store at startup.
+         *
+         * <p>Barista doesn't request client certificates, so unless a custom handler does, trust
+         * material is never parsed. Startup still fails if {@code trust.pem} or {@code cas.pem} is
+         * missing, but a malformed file is only detected by the first client certificate check,
+         * which then fails. Has no effect when a custom {@link SSLContext} is provided.
+         */
+        public Builder lazyTrustMaterial() {
+            this.trustLoading = TrustLoading.LAZY;
+            return this;
+        }
+
+        /** Restricts TLS listeners to TLS 1.3, which saves a round trip on every full handshake. */
+        public Builder tls13Only() {
+            this.tls13Only = true;
+            return this;
+        }
+
+        /**
+         * Sets the cipher suites TLS listeners may negotiate, in the server's order of preference,
+         * for example {@link CipherSuites#preferred()}.
+         *
+         * <p>Defaults to the JVM's enabled cipher suites, chosen in the client's order of preference.
+         * Suites unsupported by the JVM are ignored.
+         */
+        public Builder tlsCipherSuites(List<String> cipherSuites) {
+            Preconditions.checkArgument(!cipherSuites.isEmpty(), "At least one cipher suite is required");
+            this.tlsCipherSuites = Optional.of(List.copyOf(cipherSuites));
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of TLS sessions cached for resumption; 0 means no limit.
+         *
+         * <p>Clients that resume a cached session skip the key exchange and certificate signature of
+         * a full handshake. Defaults to the JVM's cache size (see {@code
+         * javax.net.ssl.sessionCacheSize}).
+         */
+        public Builder tlsSessionCacheSize(int sessions) {
+            Preconditions.checkArgument(sessions >= 0, "Session cache size must be non-negative");
+            this.tlsSessionCacheSize = Optional.of(sessions);
+            return this;
+        }
+
+        /** Sets how long cached TLS sessions remain eligible for resumption. Defaults to 24 hours. */
+        public Builder tlsSessionTimeout(Duration timeout) {
+            Preconditions.checkArgument(
+                    !timeout.isNegative() && timeout.getSeconds() <= Integer.MAX_VALUE,
+                    "Session timeout must be non-negative and fit in an int of seconds");
+            this.tlsSessionTimeout = Optional.of(timeout);
+            return this;
+        }
+
         public Builder sslContext(SSLContext context) {
             Objects.requireNonNull(context);
             this.sslContext = Optional.of(context);
             return this;
         }
 
+        /**
+         * Enables HTTP/2, negotiated via ALPN for TLS listeners and via h2c upgrade or prior
+         * knowledge when TLS is disabled. HTTP/1.1 clients continue to be served as before.
+         */
+        public Builder enableHttp2() {
+            this.http2 = true;
+            return this;
+        }
+
+        /** Sets the maximum number of concurrent streams advertised to HTTP/2 clients. */
+        public Builder http2MaxConcurrentStreams(int streams) {
+            Preconditions.checkArgument(streams > 0, "Max concurrent streams must be positive");
+            this.http2MaxConcurrentStreams = Optional.of(streams);
+            return this;
+        }
+
+        /** Sets the initial flow-control window size, in bytes, advertised to HTTP/2 clients. */
+        public Builder http2InitialWindowSize(int bytes) {
+            Preconditions.checkArgument(bytes > 0, "Initial window size must be positive");
+            this.http2InitialWindowSize = Optional.of(bytes);
+            return this;
+        }
+
+        /** Sets the HPACK header table size, in bytes, advertised to HTTP/2 clients. */
+        public Builder http2HeaderTableSize(int bytes) {
+            Preconditions.checkArgument(bytes >= 0, "Header table size must be non-negative");
+            this.http2HeaderTableSize = Optional.of(bytes);
+            return this;
+        }
+
         /**
          * Sets the sample rate to run tracing for incoming requests without a traceId header.
          *
@@ -165,10 +480,31 @@ public final class Server {
          * <p>A value of 0.0 means trace no requests.
          */
         public Builder tracingRate(double rate) {
-            if (rate < 0.0 || rate > 1.0) {
-                throw new IllegalArgumentException("Cannot set a rate outside of range [0, 1]");
-            }
-            this.tracingRate = rate;
+            sampling.defaultRate(rate);
+            return this;
+        }
+
+        /**
+         * Sets the sample rate for incoming requests without a traceId header to the endpoint at
+         * {@code method} {@code route}, overriding {@link #tracingRate(double)}.
+         */
+        public Builder tracingRate(HttpMethod method, String route, double rate) {
+            sampling.rate(method, route, rate);
+            return this;
+        }
+
+        /** Caps the number of new traces sampled per second across all endpoints. */
+        public Builder maxTracesPerSecond(double traces) {
+            sampling.maxTracesPerSecond(traces);
+            return this;
+        }
+
+        /**
+         * Guarantees that each endpoint samples at least one new trace per {@code interval}, even
+         * if its rate or {@link #maxTracesPerSecond(double)} would otherwise prevent it.
+         */
+        public Builder minimumTraceInterval(Duration interval) {
+            sampling.minimumInterval(interval);
             return this;
         }
 
@@ -177,40 +513,436 @@ public final class Server {
             return this;
         }
 
+        /**
+         * Writes finished spans to {@code file} from a background thread instead of logging them on
+         * the request thread. The file is rotated as it grows; spans are dropped rather than delay
+         * requests if the writer falls behind.
+         */
+        public Builder traceLogFile(Path file) {
+            this.traceLogFile = Optional.of(file);
+            return this;
+        }
+
+        /**
+         * Writes an access log to {@code file}, one JSON object per request with its method, route,
+         * status, sizes, latency, authenticated user and trace id. Requests are written from a
+         * background thread and the file is rotated as it grows; requests are dropped from the log
+         * rather than delayed if the writer falls behind.
+         */
+        public Builder accessLogFile(Path file) {
+            this.accessLogFile = Optional.of(file);
+            return this;
+        }
+
+        /**
+         * Traces every request but only exports the spans of requests that were sampled according
+         * to the tracing rates, failed with a 5xx status or took at least {@code latencyThreshold}.
+         *
+         * <p>Spans are held in memory until their request completes, so this mode costs more than
+         * head sampling alone but captures slow and failing requests that head sampling misses.
+         * Spans that finish after their request completes are dropped.
+         */
+        public Builder tailSampling(Duration latencyThreshold) {
+            Preconditions.checkArgument(!latencyThreshold.isNegative(), "Latency threshold must be non-negative");
+            this.tailSamplingThreshold = Optional.of(latencyThreshold);
+            return this;
+        }
+
+        /**
+         * Serves request metrics in the Prometheus text format at {@code route}, on the server's
+         * port unless {@link #metricsPort(int)} is also set.
+         *
+         * <p>Enabling metrics records the latency of every request into a histogram for its
+         * endpoint and status class.
+         */
+        public Builder metricsRoute(String route) {
+            Preconditions.checkArgument(route.startsWith("/"), "Metrics route must start with '/'");
+            this.metricsRoute = Optional.of(route);
+            return this;
+        }
+
+        /**
+         * Serves request metrics over plain HTTP on a separate {@code port}, at {@code /metrics}
+         * unless {@link #metricsRoute(String)} is also set.
+         */
+        public Builder metricsPort(int port) {
+            Preconditions.checkArgument(0 < port && port < 65536, "Port must be in range [1, 65535]");
+            this.metricsPort = Optional.of(port);
+            return this;
+        }
+
+        /**
+         * Logs the stack of any IO thread that stops serving its connections for longer than
+         * {@code threshold}, which almost always means a blocking call was made on the IO thread.
+         */
+        public Builder ioThreadBlockedThreshold(Duration threshold) {
+            Preconditions.checkArgument(!threshold.isNegative() && !threshold.isZero(), "Threshold must be positive");
+            this.ioThreadBlockedThreshold = Optional.of(threshold);
+            return this;
+        }
+
+        /**
+         * Measures the CPU time and heap allocations of each endpoint method call, reporting them
+         * per endpoint in metrics and in the timings of sampled requests.
+         *
+         * <p>Reading a thread's CPU time costs around a microsecond, so this is disabled by default.
+         */
+        public Builder enableResourceAccounting() {
+            this.resourceAccounting = true;
+            return this;
+        }
+
+        /**
+         * Logs a few stack samples of any endpoint call that runs for longer than {@code threshold},
+         * taken while it is still running, along with its route and trace id.
+         */
+        public Builder slowRequestThreshold(Duration threshold) {
+            Preconditions.checkArgument(!threshold.isNegative() && !threshold.isZero(), "Threshold must be positive");
+            this.slowRequestThreshold = Optional.of(threshold);
+            return this;
+        }
+
+        /**
+         * Responds with {@code statusCode} when an endpoint throws an exception of {@code type} or a
+         * subclass of it, rather than with 500. Only exceptions mapped to 5xx statuses are logged.
+         *
+         * <p>Request bodies that cannot be deserialized are rejected with 400 by default.
+         */
+        public Builder exceptionStatus(Class<? extends Throwable> type, int statusCode) {
+            exceptionStatuses.status(type, statusCode);
+            return this;
+        }
+
+        /**
+         * Serves a readiness check at {@code route}, on the server's port and on the {@link
+         * #metricsPort(int) metrics port} if set, which responds with 200 once the server has
+         * started and with 503 once it starts shutting down.
+         */
+        public Builder readinessRoute(String route) {
+            Preconditions.checkArgument(route.startsWith("/"), "Readiness route must start with '/'");
+            this.readinessRoute = Optional.of(route);
+            return this;
+        }
+
+        /**
+         * Sets how long the server keeps serving requests after it stops reporting itself ready
+         * when shutting down, which should be long enough for load balancers to notice. During this
+         * time, HTTP/1.1 responses ask clients to close their connections. Defaults to zero.
+         */
+        public Builder shutdownDelay(Duration delay) {
+            Preconditions.checkArgument(!delay.isNegative(), "Shutdown delay must be non-negative");
+            this.shutdownDelay = delay;
+            return this;
+        }
+
+        /**
+         * Sets how long the server waits for requests in flight to complete once it stops accepting
+         * new requests when shutting down. Defaults to one minute.
+         */
+        public Builder shutdownTimeout(Duration timeout) {
+            Preconditions.checkArgument(!timeout.isNegative(), "Shutdown timeout must be non-negative");
+            this.shutdownTimeout = timeout;
+            return this;
+        }
+
+        /**
+         * Replays {@code request} through the server's handlers while it warms up. Once started, and
+         * before it reports itself ready, the server replays its warm-up requests in turn until the
+         * JIT compiler settles or the {@link #warmUpTimeout warm-up timeout} elapses, so that the
+         * first requests from clients don't run interpreted code. Warm-up requests are left out of
+         * request metrics, access logs, traces, JFR events and slow request detection, but run the
+         * endpoint's code like any other request, so should be free of side effects.
+         */
+        public Builder warmUpRequest(WarmUpRequest request) {
+            warmUpRequests.add(Objects.requireNonNull(request));
+            return this;
+        }
+
+        /** Sets the longest the server spends replaying warm-up requests. Defaults to 30 seconds. */
+        public Builder warmUpTimeout(Duration timeout) {
+            Preconditions.checkArgument(!timeout.isNegative() && !timeout.isZero(), "Warm-up timeout must be positive");
+            this.warmUpTimeout = timeout;
+            return this;
+        }
+
         public Server start() {
             Preconditions.checkNotNull(authz);
+            // validate routes before acquiring any resources
+            RouteTable routes = RouteTable.of(endpointHandlers);
+            boolean trainingRun = Boolean.getBoolean(TRAINING_RUN_PROPERTY);
+            if (trainingRun && warmUpRequests.isEmpty()) {
+                log.warn("Training run has no warm-up requests, so the classes that serve requests won't be "
+                        + "loaded; add some with warmUpRequest");
+            }
+            Stopwatch total = Stopwatch.createStarted();
+            Stopwatch phase = Stopwatch.createStarted();
+
+            Closer closer = Closer.create();
+            Server server = null;
+            try {
+                MetricsRegistry metrics = new MetricsRegistry();
+                Optional<TraceLog> traceLog = traceLog(closer, metrics);
+                Optional<TailSampler> tailSampler = traceLog.flatMap(log ->
+                        tailSamplingThreshold.map(threshold -> new TailSampler(threshold, log.spans(), log.timings())));
+                if (tailSampler.isPresent()) {
+                    TailSampler tail = tailSampler.get();
+                    metrics.counter(
+                                    "barista_tail_sampling_exported_traces_total",
+                                    "Traces exported by tail sampling.",
+                                    tail::exportedTraces)
+                            .counter(
+                                    "barista_tail_sampling_discarded_traces_total",
+                                    "Traces discarded by tail sampling.",
+                                    tail::discardedTraces)
+                            .counter(
+                                    "barista_tail_sampling_dropped_spans_total",
+                                    "Spans dropped by tail sampling because no request of their trace was in flight.",
+                                    tail::droppedSpans);
+                    Spans.register("barista", tail::accept);
+                } else {
+                    traceLog.ifPresent(log -> Spans.register("barista", log.spans()));
+                }
+                Consumer<RequestTimings> timingsExporter =
+                        timings -> traceLog.ifPresent(log -> log.timings().accept(timings));
+
+                boolean serveMetrics = metricsRoute.isPresent() || metricsPort.isPresent();
+                String metricsPath = metricsRoute.orElse("/metrics");
+                RequestMetrics requestMetrics = RequestMetrics.create(routes);
+                metrics.register(requestMetrics);
+
+                Optional<SlowRequestDetector> slowRequests =
+                        slowRequestThreshold.map(threshold -> closer.register(new SlowRequestDetector(threshold)));
+                slowRequests.ifPresent(detector -> metrics.counter(
+                        "barista_slow_requests_total",
+                        "Endpoint calls that ran for longer than the slow request threshold.",
+                        detector::slowRequests));
+                Optional<AccessLogExporter> accessLog =
+                        accessLogFile.map(file -> closer.register(AccessLogExporter.create(file)));
+                accessLog.ifPresent(exporter -> metrics.counter(
+                        "barista_access_log_dropped_total",
+                        "Requests dropped from the access log because its writer fell behind.",
+                        exporter::droppedRecords));
+                Readiness readiness = new Readiness();
+                DoubleSupplier ready = () -> readiness.isReady() ? 1 : 0;
+                DoubleSupplier draining = () -> readiness.isDraining() ? 1 : 0;
+                metrics.gauge("barista_ready", "Whether the server is ready to receive traffic.", ready)
+                        .gauge("barista_draining", "Whether the server is draining ahead of shutting down.", draining);
+                RouteSampler sampler = sampling.build(routes);
+                EndpointRuntime runtime =
+                        new EndpointRuntime(serde, authz, resourceAccounting, slowRequests, exceptionStatuses.build());
+
+                // handlers that run after routing, so that requests are traced and counted by route
+                DelegatingHandler routed =
+                        endpoint -> HandlerChain.of(h -> new TracingHandler(sampler, tailSampler, timingsExporter, h))
+                                .then(h -> new RequestMetricsHandler.Routed(requestMetrics, h), serveMetrics)
+                                .last(endpoint);
+                HttpHandler handler = HandlerChain.of(h -> new DrainHandler(readiness, h))
+                        .then(h -> new ReadinessHandler(readiness, readinessRoute.get(), h), readinessRoute.isPresent())
+                        .then(
+                                h -> new PrometheusHandler(metrics, metricsPath, h),
+                                metricsPort.isEmpty() && serveMetrics)
+                        .then(h -> new RequestMetricsHandler(requestMetrics, h), serveMetrics)
+                        .then(h -> new AccessLogHandler(accessLog.get(), h), accessLog.isPresent())
+                        .then(h -> new CorsHandler(allowAllOrigins, allowedOrigins, h))
+                        .then(StrictTransportSecurityHandler::new, strictTransportSecurity)
+                        .last(new EndpointHandlerBuilder(runtime, fallbackHandler).build(routes, routed));
+                GracefulShutdownHandler shutdownHandler = new GracefulShutdownHandler(handler);
+                // the only dispatch to worker threads, shared by every listener
+                HttpHandler root = new DispatchFromIoThreadHandler(shutdownHandler);
+                long handlersMillis = lap(phase);
+
+                List<Listener> listeners = new ArrayList<>();
+                listeners.add(new Listener(host, port, tls));
+                listeners.addAll(additionalListeners);
+                TlsMetrics tlsMetrics = new TlsMetrics();
+                if (listeners.stream().anyMatch(Listener::tls)) {
+                    metrics.counter(
+                                    "barista_tls_full_handshakes_total",
+                                    "TLS handshakes that negotiated a new session.",
+                                    tlsMetrics::fullHandshakes)
+                            .counter(
+                                    "barista_tls_resumed_handshakes_total",
+                                    "TLS handshakes that resumed a cached session.",
+                                    tlsMetrics::resumedHandshakes);
+                }
+                Supplier<SSLContext> tlsContext = Suppliers.memoize(() -> sslContext(closer, tlsMetrics));
+                List<ListenerBuilder> listenerBuilders =
+                        listeners.stream().map(l -> listener(l, tlsContext)).toList();
+                long tlsMillis = lap(phase);
+
+                Undertow.Builder undertowBuilder = Undertow.builder().setHandler(root);
+                listenerBuilders.forEach(undertowBuilder::addListener);
+                acceptBacklog.ifPresent(backlog -> undertowBuilder.setSocketOption(Options.BACKLOG, backlog));
+                metricsPort.ifPresent(adminPort -> undertowBuilder.addListener(new ListenerBuilder()
+                        .setType(ListenerType.HTTP)
+                        .setPort(adminPort)
+                        .setHost("0.0.0.0")
+                        .setRootHandler(HandlerChain.of(DispatchFromIoThreadHandler::new)
+                                .then(
+                                        h -> new ReadinessHandler(readiness, readinessRoute.get(), h),
+                                        readinessRoute.isPresent())
+                                .last(new PrometheusHandler(metrics, metricsPath, ResponseCodeHandler.HANDLE_404)))));
+                if (serveMetrics) {
+                    undertowBuilder.setServerOption(UndertowOptions.ENABLE_STATISTICS, true);
+                }
+                if (http2) {
+                    undertowBuilder.setServerOption(UndertowOptions.ENABLE_HTTP2, true);
+                    http2MaxConcurrentStreams.ifPresent(streams -> undertowBuilder.setServerOption(
+                            UndertowOptions.HTTP2_SETTINGS_MAX_CONCURRENT_STREAMS, streams));
+                    http2InitialWindowSize.ifPresent(bytes ->
+                            undertowBuilder.setServerOption(UndertowOptions.HTTP2_SETTINGS_INITIAL_WINDOW_SIZE, bytes));
+                    http2HeaderTableSize.ifPresent(bytes ->
+                            undertowBuilder.setServerOption(UndertowOptions.HTTP2_SETTINGS_HEADER_TABLE_SIZE, bytes));
+                }
+                Undertow undertow = undertowBuilder.build();
+                server = new Server(
+                        shutdownHandler,
+                        undertow,
+                        closer,
+                        tlsMetrics,
+                        metrics,
+                        readiness,
+                        shutdownDelay,
+                        shutdownTimeout);
+                server.start();
+                unixSocket.ifPresent(
+                        path -> closer.register(UnixSocketListener.start(path, undertow.getWorker(), root)));
+                if (serveMetrics) {
+                    metrics.register(new WorkerMetrics(undertow));
+                }
+                if (serveMetrics || ioThreadBlockedThreshold.isPresent()) {
+                    metrics.register(
+                            closer.register(new IoThreadMonitor(undertow.getWorker(), ioThreadBlockedThreshold)));
+                }
+                long listenMillis = lap(phase);
+                if (!warmUpRequests.isEmpty()) {
+                    warmUp(undertow.getWorker(), root);
+                }
+                readiness.ready();
 
-            if (enableTraceLogging) {
-                // TODO(markelliot): use a custom format, perhaps emit to a specific log file
-                Logger tracing = LoggerFactory.getLogger("tracing");
-                Spans.register("barista", span -> tracing.info("TRACING {}", span));
+                log.info(
+                        "Started server on {} in {} ms (handlers: {} ms, tls: {} ms, listen: {} ms)",
+                        unixSocket.isPresent() ? listeners + " and unix:" + unixSocket.get() : listeners,
+                        total.elapsed(TimeUnit.MILLISECONDS),
+                        handlersMillis,
+                        tlsMillis,
+                        listenMillis);
+                if (trainingRun) {
+                    log.info("Stopping server after training run");
+                    server.stop();
+                }
+                return server;
+            } catch (RuntimeException | Error e) {
+                // release the resources acquired so far, such as exporter threads, open files and
+                // listeners already bound, rather than leaking them
+                if (server != null) {
+                    server.abort();
+                } else {
+                    closeAfterFailure(closer, e);
+                }
+                throw e;
             }
+        }
+
+        private static void closeAfterFailure(Closer closer, Throwable failure) {
+            try {
+                closer.close();
+            } catch (IOException | RuntimeException e) {
+                failure.addSuppressed(e);
+            }
+        }
+
+        private void warmUp(XnioWorker worker, HttpHandler handler) {
+            WarmUp.Result result = WarmUp.run(worker, handler, warmUpRequests, warmUpTimeout);
+            if (result.failures() > 0) {
+                log.warn(
+                        "{} of {} warm-up requests failed; check the warm-up requests are valid",
+                        result.failures(),
+                        result.requests());
+            }
+            log.info(
+                    "Warmed up with {} requests in {} ms{}",
+                    result.requests(),
+                    result.elapsed().toMillis(),
+                    result.settled() ? "" : " before compilation settled");
+        }
+
+        /** Returns the consumers of finished spans and request timings, if trace logging is enabled. */
+        private Optional<TraceLog> traceLog(Closer closer, MetricsRegistry metrics) {
+            if (!enableTraceLogging) {
+                return Optional.empty();
+            }
+            if (traceLogFile.isPresent()) {
+                SpanExporter exporter = closer.register(SpanExporter.create(traceLogFile.get()));
+                metrics.counter(
+                        "barista_spans_dropped_total",
+                        "Spans dropped because the trace log writer fell behind.",
+                        exporter::droppedSpans);
+                return Optional.of(new TraceLog(exporter::export, exporter::export));
+            }
+            Logger tracing = LoggerFactory.getLogger("tracing");
+            return Optional.of(new TraceLog(
+                    span -> tracing.info("TRACING {}", SpanExporter.format(span)),
+                    timings -> tracing.info("TRACING {}", timings)));
+        }
+
+        private record TraceLog(Consumer<CompletedSpan> spans, Consumer<RequestTimings> timings) {}
+
+        /** Returns the milliseconds elapsed on {@code stopwatch} and restarts it. */
+        private static long lap(Stopwatch stopwatch) {
+            long millis = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+            stopwatch.reset().start();
+            return millis;
+        }
 
-            HttpHandler handler = HandlerChain.of(DispatchFromIoThreadHandler::new)
-                    .then(h -> new CorsHandler(allowAllOrigins, allowedOrigins, h))
-                    .then(h -> new TracingHandler(tracingRate, h))
-                    .then(StrictTransportSecurityHandler::new, strictTransportSecurity)
-                    .last(new EndpointHandlerBuilder(serde, authz, fallbackHandler).build(endpointHandlers));
-            GracefulShutdownHandler shutdownHandler = new GracefulShutdownHandler(handler);
-            Undertow undertow = Undertow.builder()
-                    .setHandler(new DispatchFromIoThreadHandler(shutdownHandler))
-                    .addListener(listener())
-                    .build();
-            Server server = new Server(shutdownHandler, undertow);
-            server.start();
-            return server;
-        }
-
-        private ListenerBuilder listener() {
-            ListenerBuilder lb = new ListenerBuilder().setPort(port).setHost("0.0.0.0");
-            if (tls) {
-                SSLContext context = sslContext.orElseGet(
-                        () -> TransportLayerSecurity.createSslContext(Paths.get("var", "security")));
-                lb.setType(ListenerType.HTTPS).setSslContext(context);
+        private ListenerBuilder listener(Listener listener, Supplier<SSLContext> tlsContext) {
+            ListenerBuilder lb = new ListenerBuilder().setPort(listener.port()).setHost(listener.host());
+            if (listener.tls()) {
+                lb.setType(ListenerType.HTTPS).setSslContext(tlsContext.get()).setOverrideSocketOptions(tlsOptions());
             } else {
                 lb.setType(ListenerType.HTTP);
             }
             return lb;
         }
+
+        /** Returns the TLS configuration shared by all TLS listeners. */
+        private SSLContext sslContext(Closer closer, TlsMetrics tlsMetrics) {
+            SSLContext context = sslContext.orElseGet(() -> defaultSslContext(closer));
+            SSLSessionContext sessions = context.getServerSessionContext();
+            tlsSessionCacheSize.ifPresent(sessions::setSessionCacheSize);
+            tlsSessionTimeout.ifPresent(timeout -> sessions.setSessionTimeout((int) timeout.getSeconds()));
+            return tlsMetrics.instrument(context);
+        }
+
+        private record Listener(String host, int port, boolean tls) {
+            Listener {
+                Objects.requireNonNull(host);
+                Preconditions.checkArgument(0 <= port && port < 65536, "Port must be in range [0, 65535]");
+            }
+
+            @Override
+            public String toString() {
+                return (tls ? "https://" : "http://") + host + ":" + port;
+            }
+        }
+
+        private OptionMap tlsOptions() {
+            OptionMap.Builder options = OptionMap.builder();
+            tlsCipherSuites.ifPresent(suites -> options.set(Options.SSL_ENABLED_CIPHER_SUITES, Sequence.of(suites))
+                    .set(UndertowOptions.SSL_USER_CIPHER_SUITES_ORDER, true));
+            if (tls13Only) {
+                options.setSequence(Options.SSL_ENABLED_PROTOCOLS, "TLSv1.3");
+            }
+            return options.getMap();
+        }
+
+        private SSLContext defaultSslContext(Closer closer) {
+            Path securityDir = Paths.get("var", "security");
+            if (reloadTls) {
+                return closer.register(TransportLayerSecurity.createReloadingSslContext(securityDir, trustLoading))
+                        .context();
+            }
+            return TransportLayerSecurity.createSslContext(securityDir, trustLoading);
+        }
     }
 }
@@ -0,0 +1,50 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/** Helpers for the background threads Barista runs alongside the server's own. */
+public final class Threads {
+    private Threads() {}
+
+    /** Returns a factory of daemon threads named {@code name}. */
+    public static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /** Returns a single-threaded scheduler whose daemon thread is named {@code name}. */
+    public static ScheduledExecutorService daemonScheduler(String name) {
+        return Executors.newSingleThreadScheduledExecutor(daemon(name));
+    }
+
+    /** Carries another thread's stack so that it is logged like an exception's. */
+    public static final class Stack extends Throwable {
+        private static final long serialVersionUID = 1L;
+
+        public Stack(String message, Thread thread) {
+            super(message, null, false, true);
+            setStackTrace(thread.getStackTrace());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.AttachmentKey;
+import java.util.Optional;
+
+/**
+ * The trace a request belongs to, made available to the thread running an endpoint's method so
+ * that outgoing calls made by the endpoint continue the trace.
+ *
+ * <p>{@code spanId} identifies the request's own span, which is the parent of the spans of any
+ * outgoing calls.
+ */
+public record TraceContext(String traceId, String spanId, boolean sampled) {
+    private static final AttachmentKey<TraceContext> KEY = AttachmentKey.create(TraceContext.class);
+    private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+
+    /** Restores the trace that was current before the scope was entered. */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /** Records that {@code exchange} belongs to this trace. */
+    public void attach(HttpServerExchange exchange) {
+        exchange.putAttachment(KEY, this);
+    }
+
+    /** Returns the trace of the endpoint running on this thread, if any. */
+    public static Optional<TraceContext> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Makes the trace attached to {@code exchange}, if any, current on this thread until the
+     * returned scope is closed.
+     */
+    public static Scope enter(HttpServerExchange exchange) {
+        TraceContext previous = CURRENT.get();
+        CURRENT.set(exchange.getAttachment(KEY));
+        return () -> CURRENT.set(previous);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.client;
+
+import com.markelliot.barista.HttpMethod;
+import com.markelliot.barista.authz.AuthToken;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A call to a remote endpoint under construction; created by {@link ClientRuntime#request} and
+ * populated by generated clients. Parameters that are absent are omitted from the request.
+ */
+public final class ClientRequest {
+    private final HttpMethod method;
+    private String path;
+    private final StringBuilder query = new StringBuilder();
+    private final List<String> headers = new ArrayList<>();
+    private final StringBuilder cookies = new StringBuilder();
+    private Optional<Object> body = Optional.empty();
+
+    ClientRequest(HttpMethod method, String route) {
+        this.method = method;
+        this.path = route;
+    }
+
+    /** Substitutes {@code value} for the {@code {name}} segment of the route. */
+    public ClientRequest pathParam(String name, String value) {
+        path = path.replace("{" + name + "}", encode(value));
+        return this;
+    }
+
+    public ClientRequest queryParam(String name, String value) {
+        query.append(query.length() == 0 ? '?' : '&')
+                .append(encode(name))
+                .append('=')
+                .append(encode(value));
+        return this;
+    }
+
+    public ClientRequest queryParam(String name, Optional<String> value) {
+        value.ifPresent(v -> queryParam(name, v));
+        return this;
+    }
+
+    public ClientRequest header(String name, String value) {
+        headers.add(name);
+        headers.add(value);
+        return this;
+    }
+
+    public ClientRequest header(String name, Optional<String> value) {
+        value.ifPresent(v -> header(name, v));
+        return this;
+    }
+
+    public ClientRequest cookie(String name, String value) {
+        cookies.append(cookies.length() == 0 ? "" : "; ")
+                .append(name)
+                .append('=')
+                .append(value);
+        return this;
+    }
+
+    public ClientRequest cookie(String name, Optional<String> value) {
+        value.ifPresent(v -> cookie(name, v));
+        return this;
+    }
+
+    public ClientRequest authToken(AuthToken token) {
+        return header("Authorization", "Bearer " + token.token());
+    }
+
+    /** Sets the request body, which is serialized as JSON. */
+    public ClientRequest body(Object value) {
+        body = Optional.of(value);
+        return this;
+    }
+
+    HttpMethod method() {
+        return method;
+    }
+
+    String pathAndQuery() {
+        return path + query;
+    }
+
+    /** Returns header names and values, alternating. */
+    List<String> headers() {
+        return headers;
+    }
+
+    Optional<String> cookies() {
+        return cookies.length() == 0 ? Optional.empty() : Optional.of(cookies.toString());
+    }
+
+    Optional<Object> body() {
+        return body;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.client;
+
+import com.google.common.base.Preconditions;
+import com.google.common.net.HttpHeaders;
+import com.markelliot.barista.HttpMethod;
+import com.markelliot.barista.SerDe;
+import com.markelliot.barista.SerDe.ByteRepr;
+import com.markelliot.barista.TraceContext;
+import com.markelliot.barista.endpoints.HttpRedirect;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import javax.net.ssl.SSLContext;
+
+/**
+ * Sends the requests of generated clients to one remote service.
+ *
+ * <p>Requests share a single {@link HttpClient}, which keeps connections to the service open for
+ * reuse and multiplexes requests over HTTP/2 connections where the service supports it, so a
+ * runtime should be created once per service and shared. Response bodies are deserialized as they
+ * stream in, and calls made while an endpoint is running carry the endpoint's trace in B3 headers.
+ */
+public final class ClientRuntime {
+    private final String baseUri;
+    private final HttpClient client;
+    private final SerDe serde;
+    private final Duration requestTimeout;
+
+    private ClientRuntime(String baseUri, HttpClient client, SerDe serde, Duration requestTimeout) {
+        this.baseUri = baseUri;
+        this.client = client;
+        this.serde = serde;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /** Returns a runtime for the service at {@code baseUri} with default settings. */
+    public static ClientRuntime create(URI baseUri) {
+        return builder(baseUri).build();
+    }
+
+    public static Builder builder(URI baseUri) {
+        return new Builder(baseUri);
+    }
+
+    public ClientRequest request(HttpMethod method, String route) {
+        return new ClientRequest(method, route);
+    }
+
+    /** Sends {@code request}, expecting no response body. */
+    public void call(ClientRequest request) {
+        HttpResponse<InputStream> response = send(request);
+        try (InputStream body = response.body()) {
+            checkStatus(response.statusCode(), body);
+            // consume the body so the connection can be reused
+            body.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new RuntimeException("Error while reading response of " + describe(request), e);
+        }
+    }
+
+    /** Sends {@code request} and deserializes the response body as {@code type}. */
+    public <T> T call(ClientRequest request, ResponseType<T> type) {
+        HttpResponse<InputStream> response = send(request);
+        try (InputStream body = response.body()) {
+            checkStatus(response.statusCode(), body);
+            return serde.deserialize(body, type.type());
+        } catch (IOException e) {
+            throw new RuntimeException("Error while reading response of " + describe(request), e);
+        }
+    }
+
+    /** Sends {@code request}, expecting a redirect, which is returned rather than followed. */
+    public HttpRedirect redirect(ClientRequest request) {
+        HttpResponse<InputStream> response = send(request);
+        try (InputStream body = response.body()) {
+            checkStatus(response.statusCode(), body);
+            Optional<URI> location =
+                    response.headers().firstValue(HttpHeaders.LOCATION).map(URI::create);
+            if (location.isEmpty()) {
+                throw new RemoteException(
+                        response.statusCode(), Optional.empty(), "Expected a redirect from " + describe(request));
+            }
+            return response.statusCode() == HttpRedirect.RedirectType.PERMANANT.statusCode()
+                    ? HttpRedirect.permanent(location.get())
+                    : HttpRedirect.temporary(location.get());
+        } catch (IOException e) {
+            throw new RuntimeException("Error while reading response of " + describe(request), e);
+        }
+    }
+
+    private HttpResponse<InputStream> send(ClientRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUri + request.pathAndQuery()))
+                .timeout(requestTimeout)
+                .header(HttpHeaders.ACCEPT, serde.contentType());
+        List<String> headers = request.headers();
+        for (int i = 0; i < headers.size(); i += 2) {
+            builder.header(headers.get(i), headers.get(i + 1));
+        }
+        request.cookies().ifPresent(cookies -> builder.header(HttpHeaders.COOKIE, cookies));
+        // the span of the calling request is the parent of the remote service's span
+        TraceContext.current().ifPresent(trace -> builder.header("X-B3-TraceId", trace.traceId())
+                .header("X-B3-SpanId", trace.spanId())
+                .header("X-B3-Sampled", trace.sampled() ? "1" : "0"));
+        if (request.body().isPresent()) {
+            builder.header(HttpHeaders.CONTENT_TYPE, serde.contentType())
+                    .method(request.method().name(), BodyPublishers.ofByteArray(serialize(request)));
+        } else {
+            builder.method(request.method().name(), BodyPublishers.noBody());
+        }
+        try {
+            return client.send(builder.build(), BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            throw new RuntimeException("Error while calling " + describe(request), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while calling " + describe(request), e);
+        }
+    }
+
+    private byte[] serialize(ClientRequest request) {
+        try {
+            return serde.serialize(request.body().get()).raw().getBytes(StandardCharsets.UTF_8);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Error while serializing request body of " + describe(request), e);
+        }
+    }
+
+    /** Throws a {@link RemoteException} describing the error in {@code body} if the status is an error. */
+    private void checkStatus(int statusCode, InputStream body) throws IOException {
+        if (statusCode < 400) {
+            return;
+        }
+        String error = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        ErrorBody parsed;
+        try {
+            parsed = serde.deserialize(new ByteRepr(error), ErrorBody.class);
+        } catch (RuntimeException e) {
+            parsed = null;
+        }
+        if (parsed == null) {
+            throw new RemoteException(statusCode, Optional.empty(), error);
+        }
+        throw new RemoteException(
+                statusCode,
+                Optional.ofNullable(parsed.errorId()),
+                Optional.ofNullable(parsed.message()).orElse(error));
+    }
+
+    private static String describe(ClientRequest request) {
+        return request.method() + " " + request.pathAndQuery();
+    }
+
+    /** The body of error responses written by {@link com.markelliot.barista.endpoints.EndpointRuntime}. */
+    record ErrorBody(String errorId, String message) {}
+
+    public static final class Builder {
+        private final String baseUri;
+        private SerDe serde = new SerDe.ObjectMapperSerDe();
+        private Optional<SSLContext> sslContext = Optional.empty();
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration requestTimeout = Duration.ofMinutes(1);
+
+        private Builder(URI baseUri) {
+            String uri = baseUri.toString();
+            this.baseUri = uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+        }
+
+        /**
+         * Sets how request and response bodies are (de)serialized, which should match the remote
+         * service's {@link com.markelliot.barista.Server.Builder#serde}. Defaults to JSON.
+         */
+        public Builder serde(SerDe serde) {
+            Objects.requireNonNull(serde);
+            this.serde = serde;
+            return this;
+        }
+
+        /** Sets the TLS context of HTTPS connections; defaults to the JVM's default context. */
+        public Builder sslContext(SSLContext context) {
+            this.sslContext = Optional.of(context);
+            return this;
+        }
+
+        /** Sets how long to wait for a connection to be established. Defaults to 10 seconds. */
+        public Builder connectTimeout(Duration timeout) {
+            Preconditions.checkArgument(!timeout.isNegative() && !timeout.isZero(), "Connect timeout must be positive");
+            this.connectTimeout = timeout;
+            return this;
+        }
+
+        /** Sets how long to wait for the response to each request. Defaults to one minute. */
+        public Builder requestTimeout(Duration timeout) {
+            Preconditions.checkArgument(!timeout.isNegative() && !timeout.isZero(), "Request timeout must be positive");
+            this.requestTimeout = timeout;
+            return this;
+        }
+
+        public ClientRuntime build() {
+            HttpClient.Builder client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(connectTimeout);
+            sslContext.ifPresent(client::sslContext);
+            return new ClientRuntime(baseUri, client.build(), serde, requestTimeout);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.client;
+
+import java.util.Optional;
+
+/** Thrown when a remote endpoint responds with an error status. */
+public final class RemoteException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final Optional<String> errorId;
+
+    public RemoteException(int statusCode, Optional<String> errorId, String message) {
+        super(message);
+        this.statusCode = statusCode;
+        this.errorId = errorId;
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    /** Returns the id the remote server logged the error with, if it logged one. */
+    public Optional<String> errorId() {
+        return errorId;
+    }
+}
@@ -16,29 +16,85 @@
 
 package com.markelliot.barista.endpoints;
 
+import com.markelliot.barista.RequestTimings;
+import com.markelliot.barista.RequestTimings.Phase;
 import com.markelliot.barista.SerDe;
+import com.markelliot.barista.SerDe.ByteRepr;
+import com.markelliot.barista.TraceContext;
 import com.markelliot.barista.authz.AuthToken;
 import com.markelliot.barista.authz.AuthTokens;
 import com.markelliot.barista.authz.Authz;
 import com.markelliot.barista.authz.VerifiedAuthToken;
+import com.markelliot.barista.jfr.AuthEvent;
+import com.markelliot.barista.jfr.HandlerEvent;
+import com.markelliot.barista.jfr.ResponseEvent;
+import com.markelliot.barista.warmup.WarmUp;
 import com.markelliot.result.Result;
+import io.undertow.io.Receiver;
 import io.undertow.server.HttpServerExchange;
+import io.undertow.util.AttachmentKey;
 import io.undertow.util.HeaderValues;
 import io.undertow.util.Headers;
 import io.undertow.util.PathTemplateMatch;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Deque;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public final class EndpointRuntime {
+    private static final Logger log = LoggerFactory.getLogger(EndpointRuntime.class);
+    private static final AttachmentKey<String> SUBJECT = AttachmentKey.create(String.class);
+    private static final HttpError MISSING_TOKEN = new HttpError(401, "Unauthorized: Missing authorization authToken");
+    private static final HttpError INVALID_TOKEN = new HttpError(403, "Unauthorized: Invalid authorization authToken");
+
     private final SerDe serde;
     private final Authz authz;
+    private final boolean accountResources;
+    private final Optional<SlowRequestDetector> slowRequests;
+    private final ExceptionStatuses exceptionStatuses;
+    /** Responses to common errors, serialized once; these carry no error id. */
+    private final Map<HttpError, ByteBuffer> errorBodies;
+
+    private final ErrorLog errorLog = new ErrorLog();
 
     public EndpointRuntime(SerDe serde, Authz authz) {
+        this(serde, authz, false, Optional.empty(), ExceptionStatuses.defaults());
+    }
+
+    /**
+     * Creates a runtime that, if {@code accountResources} is set, measures the CPU time and
+     * allocations of each endpoint's method into the request's {@link RequestTimings}, tracks
+     * endpoint calls with {@code slowRequests} if present, and responds to exceptions thrown by
+     * endpoints with the status {@code exceptionStatuses} maps them to.
+     */
+    public EndpointRuntime(
+            SerDe serde,
+            Authz authz,
+            boolean accountResources,
+            Optional<SlowRequestDetector> slowRequests,
+            ExceptionStatuses exceptionStatuses) {
         this.serde = serde;
         this.authz = authz;
+        this.slowRequests = slowRequests;
+        this.exceptionStatuses = exceptionStatuses;
+        this.errorBodies = Map.of(
+                MISSING_TOKEN, serializeConstant(MISSING_TOKEN),
+                INVALID_TOKEN, serializeConstant(INVALID_TOKEN));
+        this.accountResources = accountResources && ResourceMeter.isSupported();
+        if (accountResources && !this.accountResources) {
+            log.warn("Resource accounting is not supported by this JVM and has been disabled");
+        }
+    }
+
+    /** Returns the id of the user whose auth token was verified for {@code exchange}, or null if none was. */
+    public static String subject(HttpServerExchange exchange) {
+        return exchange.getAttachment(SUBJECT);
     }
 
     public SerDe serde() {
@@ -48,63 +104,152 @@ public final class EndpointRuntime {
     public Result<VerifiedAuthToken, HttpError> verifyAuth(HttpServerExchange exchange) {
         HeaderValues authzHeader = exchange.getRequestHeaders().get(Headers.AUTHORIZATION);
         if (authzHeader.size() != 1) {
-            return HttpError.unauthenticated("Unauthorized: Missing authorization authToken");
+            return Result.error(MISSING_TOKEN);
         }
 
+        long start = System.nanoTime();
+        AuthEvent event = AuthEvent.enabled() ? new AuthEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
         AuthToken authToken = AuthTokens.fromAuthorizationHeader(authzHeader.getFirst());
-        return authz.check(authToken)
-                .map(Result::<VerifiedAuthToken, HttpError>ok)
-                .orElseGet(() -> HttpError.unauthorized("Unauthorized: Invalid authorization authToken"));
+        Optional<VerifiedAuthToken> verified = authz.check(authToken);
+        verified.ifPresent(token -> exchange.putAttachment(SUBJECT, token.userId()));
+        Result<VerifiedAuthToken, HttpError> result =
+                verified.map(Result::<VerifiedAuthToken, HttpError>ok).orElseGet(() -> Result.error(INVALID_TOKEN));
+        RequestTimings.of(exchange).record(Phase.AUTH, start);
+        if (event != null) {
+            event.complete(exchange, !result.isError());
+        }
+        return result;
     }
 
-    public void handle(Runnable runnable, HttpServerExchange exchange) {
+    /**
+     * Receives the full request body and passes it to {@code callback}, recording the time spent
+     * waiting for the body.
+     */
+    public void receiveBody(HttpServerExchange exchange, Receiver.FullStringCallback callback) {
+        long start = System.nanoTime();
+        exchange.getRequestReceiver().receiveFullString((bodyExchange, body) -> {
+            RequestTimings.of(bodyExchange).record(Phase.RECEIVE, start);
+            try {
+                callback.handle(bodyExchange, body);
+            } catch (MalformedBodyException e) {
+                writeError(e, bodyExchange);
+            }
+        });
+    }
+
+    /**
+     * Deserializes a request body, recording the time spent doing so.
+     *
+     * @throws MalformedBodyException if the body cannot be deserialized
+     */
+    public <T> T deserialize(HttpServerExchange exchange, String body, Class<T> type) {
+        long start = System.nanoTime();
+        T value;
         try {
-            runnable.run();
-        } catch (Exception e) {
-            writeError(e, exchange);
-            // TODO(markelliot): some smarter logging
-            return;
+            value = serde.deserialize(new ByteRepr(body), type);
+        } catch (RuntimeException e) {
+            throw new MalformedBodyException("Unable to deserialize request body as " + type.getSimpleName(), e);
         }
+        RequestTimings.of(exchange).record(Phase.DESERIALIZE, start);
+        return value;
+    }
 
-        writeEmpty(exchange);
+    public void handle(Runnable runnable, HttpServerExchange exchange) {
+        invoke(exchange, Executors.callable(runnable), (unused, ex) -> writeEmpty(ex));
     }
 
     public void handle(Callable<?> callable, HttpServerExchange exchange) {
-        Object response;
-        try {
-            response = callable.call();
-        } catch (Exception e) {
-            writeError(e, exchange);
-            // TODO(markelliot): some smarter logging
-            return;
-        }
-
-        writeBody(response, exchange);
+        invoke(exchange, callable, this::writeBody);
     }
 
     public void redirect(Callable<HttpRedirect> callable, HttpServerExchange exchange) {
-        HttpRedirect redirect;
+        invoke(exchange, callable, EndpointRuntime::redirect);
+    }
+
+    /**
+     * Calls {@code callable} with the request tracked for slowness and its trace current, then
+     * writes the result with {@code writer}, or writes the error it threw.
+     */
+    private <T> void invoke(
+            HttpServerExchange exchange, Callable<T> callable, BiConsumer<T, HttpServerExchange> writer) {
+        SlowRequestDetector.Scope tracked = track(exchange);
+        TraceContext.Scope trace = TraceContext.enter(exchange);
         try {
-            redirect = callable.call();
-        } catch (Exception e) {
-            writeError(e, exchange);
-            return;
+            long start = System.nanoTime();
+            HandlerEvent event = HandlerEvent.enabled() ? new HandlerEvent() : null;
+            if (event != null) {
+                event.begin();
+            }
+            ResourceMeter meter = ResourceMeter.start(accountResources);
+            T result;
+            try {
+                result = callable.call();
+            } catch (Exception e) {
+                handlerFinished(exchange, start, meter, event, true);
+                writeError(e, exchange);
+                return;
+            }
+            handlerFinished(exchange, start, meter, event, false);
+
+            writer.accept(result, exchange);
+        } finally {
+            trace.close();
+            tracked.close();
         }
+    }
 
-        redirect(redirect, exchange);
+    private SlowRequestDetector.Scope track(HttpServerExchange exchange) {
+        return slowRequests.isPresent() && !WarmUp.isWarmUp(exchange)
+                ? slowRequests.get().track(exchange)
+                : SlowRequestDetector.untracked();
+    }
+
+    /** Records the end of the endpoint's method, whose {@code event} is null if not recorded. */
+    private static void handlerFinished(
+            HttpServerExchange exchange, long start, ResourceMeter meter, HandlerEvent event, boolean threw) {
+        RequestTimings timings = RequestTimings.of(exchange);
+        timings.record(Phase.HANDLER, start);
+        meter.record(timings);
+        if (event != null) {
+            event.complete(exchange, threw);
+        }
     }
 
     public void error(HttpError error, HttpServerExchange exchange) {
         exchange.setStatusCode(error.statusCode());
         exchange.getResponseHeaders().add(Headers.CONTENT_TYPE, serde.contentType());
-        exchange.getResponseSender()
-                .send(serde.serialize(new ServerError(UUID.randomUUID().toString(), error.message()))
-                        .raw());
+        ByteBuffer body = errorBodies.get(error);
+        if (body != null) {
+            exchange.getResponseSender().send(body.duplicate());
+        } else {
+            exchange.getResponseSender()
+                    .send(serde.serialize(new ServerError(ErrorLog.newErrorId(), error.message()))
+                            .raw());
+        }
+    }
+
+    private ByteBuffer serializeConstant(HttpError error) {
+        byte[] body =
+                serde.serialize(new ServerError(null, error.message())).raw().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.wrap(body).asReadOnlyBuffer();
     }
 
     private void writeBody(Object body, HttpServerExchange exchange) {
+        long start = System.nanoTime();
+        ResponseEvent event = ResponseEvent.enabled() ? new ResponseEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        String serialized = serde.serialize(body).raw();
+        RequestTimings.of(exchange).record(Phase.SERIALIZE, start);
         exchange.getResponseHeaders().add(Headers.CONTENT_TYPE, serde.contentType());
-        exchange.getResponseSender().send(serde.serialize(body).raw());
+        exchange.getResponseSender().send(serialized);
+        if (event != null) {
+            event.complete(exchange);
+        }
     }
 
     private void writeEmpty(HttpServerExchange exchange) {
@@ -113,13 +258,31 @@ public final class EndpointRuntime {
     }
 
     private void writeError(Exception exception, HttpServerExchange exchange) {
-        writeError(new ServerError(UUID.randomUUID().toString(), exception.getMessage()), exchange);
+        int statusCode = exceptionStatuses.statusCode(exception);
+        String errorId = ErrorLog.newErrorId();
+        if (statusCode >= 500) {
+            errorLog.log(errorId, describe(exchange), exception);
+        }
+        writeError(statusCode, new ServerError(errorId, exception.getMessage()), exchange);
     }
 
-    private void writeError(ServerError error, HttpServerExchange exchange) {
-        exchange.setStatusCode(500);
+    private static String describe(HttpServerExchange exchange) {
+        PathTemplateMatch match = exchange.getAttachment(PathTemplateMatch.ATTACHMENT_KEY);
+        return exchange.getRequestMethod() + " "
+                + (match == null ? exchange.getRequestPath() : match.getMatchedTemplate());
+    }
+
+    private void writeError(int statusCode, ServerError error, HttpServerExchange exchange) {
+        ResponseEvent event = ResponseEvent.enabled() ? new ResponseEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        exchange.setStatusCode(statusCode);
         exchange.getResponseHeaders().add(Headers.CONTENT_TYPE, serde.contentType());
         exchange.getResponseSender().send(serde.serialize(error).raw());
+        if (event != null) {
+            event.complete(exchange);
+        }
     }
 
     private static void redirect(HttpRedirect redirect, HttpServerExchange exchange) {
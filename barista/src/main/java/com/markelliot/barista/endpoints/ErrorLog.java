@@ -0,0 +1,113 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.endpoints;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs exceptions thrown by endpoints, at most once per interval for each exception signature.
+ *
+ * <p>A signature is the exception's type and the frame that threw it, so a failing dependency that
+ * throws on every request logs one stack trace per interval rather than flooding the log. The
+ * next error logged for a signature reports how many were suppressed since the previous one.
+ */
+final class ErrorLog {
+    private static final Logger log = LoggerFactory.getLogger(ErrorLog.class);
+    private static final long DEFAULT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final int MAX_SIGNATURES = 1024;
+
+    private final long intervalNanos;
+    private final Map<Signature, Window> windows = new ConcurrentHashMap<>();
+    /** Shared by all signatures seen once {@link #MAX_SIGNATURES} are tracked. */
+    private final Window overflow;
+
+    ErrorLog() {
+        this(DEFAULT_INTERVAL_NANOS, System.nanoTime());
+    }
+
+    ErrorLog(long intervalNanos, long nowNanos) {
+        this.intervalNanos = intervalNanos;
+        this.overflow = new Window(nowNanos);
+    }
+
+    /**
+     * Returns a random id for an error response. Unlike {@link UUID#randomUUID()}, this doesn't
+     * draw from {@link java.security.SecureRandom}, which error ids needn't be unguessable enough
+     * to justify.
+     */
+    static String newErrorId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    void log(String errorId, String route, Throwable error) {
+        long suppressed = permit(error, System.nanoTime());
+        if (suppressed == 0) {
+            log.error("Error {} handling {}", errorId, route, error);
+        } else if (suppressed > 0) {
+            log.error(
+                    "Error {} handling {} ({} similar errors suppressed since the last was logged)",
+                    errorId,
+                    route,
+                    suppressed,
+                    error);
+        }
+    }
+
+    /**
+     * Returns the number of errors with {@code error}'s signature suppressed since one was last
+     * logged if {@code error} should be logged, or -1 if it should be suppressed.
+     */
+    long permit(Throwable error, long nowNanos) {
+        StackTraceElement[] stack = error.getStackTrace();
+        Signature signature = new Signature(error.getClass(), stack.length == 0 ? null : stack[0]);
+        Window window = windows.get(signature);
+        if (window == null) {
+            window = windows.size() < MAX_SIGNATURES
+                    ? windows.computeIfAbsent(signature, unused -> new Window(nowNanos))
+                    : overflow;
+        }
+        return window.permit(nowNanos, intervalNanos);
+    }
+
+    private record Signature(Class<?> type, StackTraceElement origin) {}
+
+    private static final class Window {
+        private final AtomicLong nextLogNanos;
+        private final AtomicLong suppressed = new AtomicLong();
+
+        Window(long nowNanos) {
+            this.nextLogNanos = new AtomicLong(nowNanos);
+        }
+
+        long permit(long nowNanos, long intervalNanos) {
+            long next = nextLogNanos.get();
+            if (nowNanos - next >= 0 && nextLogNanos.compareAndSet(next, nowNanos + intervalNanos)) {
+                return suppressed.getAndSet(0);
+            }
+            suppressed.incrementAndGet();
+            return -1;
+        }
+    }
+}
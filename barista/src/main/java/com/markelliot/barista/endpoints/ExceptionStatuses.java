@@ -0,0 +1,83 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.endpoints;
+
+import com.google.common.base.Preconditions;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps exceptions thrown while handling a request to the status code of the error response.
+ *
+ * <p>An exception maps to the status registered for its class or, failing that, its nearest
+ * registered superclass, and to 500 if none is registered. Lookups are cached per exception class,
+ * so mapping costs a single {@link ClassValue} read once a class has been seen.
+ */
+public final class ExceptionStatuses {
+    private static final int DEFAULT_STATUS = 500;
+
+    private final Map<Class<?>, Integer> statuses;
+    private final ClassValue<Integer> resolved = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                Integer status = statuses.get(current);
+                if (status != null) {
+                    return status;
+                }
+            }
+            return DEFAULT_STATUS;
+        }
+    };
+
+    private ExceptionStatuses(Map<Class<?>, Integer> statuses) {
+        this.statuses = Map.copyOf(statuses);
+    }
+
+    /** Returns the default mapping, which maps {@link MalformedBodyException} to 400. */
+    public static ExceptionStatuses defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int statusCode(Throwable exception) {
+        return resolved.get(exception.getClass());
+    }
+
+    public static final class Builder {
+        private final Map<Class<?>, Integer> statuses = new HashMap<>();
+
+        private Builder() {
+            statuses.put(MalformedBodyException.class, 400);
+        }
+
+        /** Responds with {@code statusCode} to exceptions of {@code type} and its subclasses. */
+        public Builder status(Class<? extends Throwable> type, int statusCode) {
+            Preconditions.checkArgument(
+                    400 <= statusCode && statusCode < 600, "Status code must be in range [400, 599]");
+            statuses.put(type, statusCode);
+            return this;
+        }
+
+        public ExceptionStatuses build() {
+            return new ExceptionStatuses(statuses);
+        }
+    }
+}
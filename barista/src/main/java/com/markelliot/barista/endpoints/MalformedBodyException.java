@@ -0,0 +1,26 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.endpoints;
+
+/** Thrown when a request body cannot be deserialized into the type an endpoint expects. */
+public final class MalformedBodyException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public MalformedBodyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.endpoints;
+
+import com.markelliot.barista.RequestTimings;
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the CPU time and heap allocations of the current thread between its creation and a call
+ * to {@link #record(RequestTimings)}.
+ */
+class ResourceMeter {
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final ResourceMeter NOOP = new ResourceMeter(0, 0) {
+        @Override
+        void record(RequestTimings timings) {}
+    };
+
+    private final long cpuStart;
+    private final long allocatedStart;
+
+    private ResourceMeter(long cpuStart, long allocatedStart) {
+        this.cpuStart = cpuStart;
+        this.allocatedStart = allocatedStart;
+    }
+
+    /**
+     * Returns a meter started now if {@code enabled}, or one that records nothing otherwise.
+     *
+     * <p>Requires a JVM that supports measuring per-thread CPU time and allocations, as HotSpot
+     * does; see {@link #isSupported()}.
+     */
+    static ResourceMeter start(boolean enabled) {
+        return enabled
+                ? new ResourceMeter(THREADS.getCurrentThreadCpuTime(), THREADS.getCurrentThreadAllocatedBytes())
+                : NOOP;
+    }
+
+    static boolean isSupported() {
+        return THREADS.isCurrentThreadCpuTimeSupported()
+                && THREADS.isThreadCpuTimeEnabled()
+                && THREADS.isThreadAllocatedMemorySupported()
+                && THREADS.isThreadAllocatedMemoryEnabled();
+    }
+
+    void record(RequestTimings timings) {
+        timings.recordResources(
+                THREADS.getCurrentThreadCpuTime() - cpuStart,
+                THREADS.getCurrentThreadAllocatedBytes() - allocatedStart);
+    }
+}
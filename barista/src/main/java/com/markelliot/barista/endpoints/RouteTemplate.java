@@ -0,0 +1,57 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.endpoints;
+
+import com.google.common.base.Preconditions;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A parsed route template such as {@code /items/{id}}, with the parameter names removed to give
+ * its shape: two templates with the same shape match exactly the same paths, so only one of them
+ * can be routed to.
+ */
+public record RouteTemplate(String template, String shape, List<String> parameters) {
+    /**
+     * Parses {@code route}, adding a leading slash if missing as the router does.
+     *
+     * @throws IllegalArgumentException if a parameter is unterminated, unnamed or repeated
+     */
+    public static RouteTemplate parse(String route) {
+        String template = route.startsWith("/") ? route : "/" + route;
+        StringBuilder shape = new StringBuilder(template.length());
+        Set<String> parameters = new LinkedHashSet<>();
+        int start = 0;
+        int open;
+        while ((open = template.indexOf('{', start)) != -1) {
+            int close = template.indexOf('}', open + 1);
+            Preconditions.checkArgument(close != -1, "Unterminated parameter in route '%s'", route);
+            String name = template.substring(open + 1, close);
+            Preconditions.checkArgument(
+                    !name.isEmpty() && name.indexOf('{') == -1 && name.indexOf('/') == -1,
+                    "Invalid parameter name '%s' in route '%s'",
+                    name,
+                    route);
+            Preconditions.checkArgument(parameters.add(name), "Repeated parameter '%s' in route '%s'", name, route);
+            shape.append(template, start, open).append("{}");
+            start = close + 1;
+        }
+        shape.append(template, start, template.length());
+        return new RouteTemplate(template, shape.toString(), List.copyOf(parameters));
+    }
+}
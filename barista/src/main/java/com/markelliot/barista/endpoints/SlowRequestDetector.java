@@ -0,0 +1,171 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.endpoints;
+
+import com.google.common.base.Preconditions;
+import com.markelliot.barista.Threads;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HttpString;
+import io.undertow.util.PathTemplateMatch;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs stack samples of endpoint calls that run for longer than a threshold, while they are still
+ * running.
+ *
+ * <p>Each thread that runs endpoints owns a slot describing the call it is running, so tracking a
+ * call costs a few field writes. A watchdog thread scans the slots periodically and samples the
+ * stack of any call that has run for longer than the threshold, again at twice and three times
+ * the threshold, and logs each sample with the call's route and trace id.
+ */
+public final class SlowRequestDetector implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(SlowRequestDetector.class);
+    private static final HttpString TRACE_ID = HttpString.tryFromString("X-B3-TraceId");
+    private static final int MAX_SAMPLES = 3;
+    private static final Scope NOOP = () -> {};
+
+    private final long thresholdNanos;
+    private final List<Slot> slots = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Slot> slot = ThreadLocal.withInitial(this::newSlot);
+    private final ScheduledExecutorService watchdog;
+    private final LongAdder slowRequests = new LongAdder();
+
+    /** Marks the end of a tracked call. */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public SlowRequestDetector(Duration threshold) {
+        Preconditions.checkArgument(!threshold.isNegative() && !threshold.isZero(), "Threshold must be positive");
+        this.thresholdNanos = threshold.toNanos();
+        this.watchdog = Threads.daemonScheduler("barista-slow-request-watchdog");
+        long period = Math.max(TimeUnit.MILLISECONDS.toNanos(10), thresholdNanos / 4);
+        watchdog.scheduleAtFixedRate(this::scan, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /** Returns a scope that tracks nothing, for use when slow request detection is disabled. */
+    static Scope untracked() {
+        return NOOP;
+    }
+
+    /** Tracks the call handling {@code exchange} on the current thread until the scope is closed. */
+    public Scope track(HttpServerExchange exchange) {
+        Slot current = slot.get();
+        PathTemplateMatch match = exchange.getAttachment(PathTemplateMatch.ATTACHMENT_KEY);
+        current.start(
+                exchange.getRequestMethod(),
+                match == null ? exchange.getRelativePath() : match.getMatchedTemplate(),
+                exchange.getResponseHeaders().getFirst(TRACE_ID));
+        return current;
+    }
+
+    /** Returns the number of tracked calls that ran for longer than the threshold. */
+    public long slowRequests() {
+        return slowRequests.sum();
+    }
+
+    private Slot newSlot() {
+        Slot created = new Slot(Thread.currentThread());
+        slots.add(created);
+        return created;
+    }
+
+    private void scan() {
+        long now = System.nanoTime();
+        for (Slot current : slots) {
+            if (!current.thread.isAlive()) {
+                slots.remove(current);
+                continue;
+            }
+            long call = current.call;
+            if (call < 0) {
+                continue;
+            }
+            if (call != current.sampledCall) {
+                current.sampledCall = call;
+                current.samples = 0;
+            }
+            long elapsed = now - current.startNanos;
+            if (current.samples >= MAX_SAMPLES || elapsed < thresholdNanos * (current.samples + 1)) {
+                continue;
+            }
+            String route = current.method + " " + current.route;
+            String traceId = current.traceId;
+            Threads.Stack sample = new Threads.Stack("Stack of " + current.thread.getName(), current.thread);
+            // discard the sample if the call finished or another began while reading its state
+            if (current.call == call) {
+                if (current.samples++ == 0) {
+                    slowRequests.increment();
+                }
+                log.warn(
+                        "Request {} (traceId={}) has been running for {} ms on thread {}, stack sample {} of {}",
+                        route,
+                        traceId,
+                        TimeUnit.NANOSECONDS.toMillis(elapsed),
+                        current.thread.getName(),
+                        current.samples,
+                        MAX_SAMPLES,
+                        sample);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        watchdog.shutdownNow();
+    }
+
+    private static final class Slot implements Scope {
+        private final Thread thread;
+        private long nextCall = 0;
+        // written by the owning thread and read by the watchdog; call is -1 while idle
+        private volatile long call = -1;
+        private volatile long startNanos;
+        private volatile HttpString method;
+        private volatile String route;
+        private volatile String traceId;
+        // only accessed by the watchdog, which resets it whenever it sees a new call
+        private int samples;
+        private long sampledCall = -1;
+
+        Slot(Thread thread) {
+            this.thread = thread;
+        }
+
+        void start(HttpString callMethod, String callRoute, String callTraceId) {
+            method = callMethod;
+            route = callRoute;
+            traceId = callTraceId;
+            startNanos = System.nanoTime();
+            call = nextCall++;
+        }
+
+        @Override
+        public void close() {
+            call = -1;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.exporters;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes an access log to a rotating file, one JSON object per request, from a background thread.
+ *
+ * <p>{@link #record} never blocks or allocates: it populates a preallocated record in a bounded
+ * buffer, and drops the request when the buffer is full. {@link #droppedRecords()} reports how many
+ * requests were dropped.
+ */
+public final class AccessLogExporter implements Closeable {
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final long DEFAULT_MAX_FILE_BYTES = 64L * 1024 * 1024;
+    private static final int DEFAULT_MAX_ARCHIVES = 5;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final AsyncFileWriter<AccessLogRecord> writer;
+
+    private AccessLogExporter(AsyncFileWriter<AccessLogRecord> writer) {
+        this.writer = writer;
+    }
+
+    /** Returns an exporter that writes to {@code file}, keeping 5 archives of up to 64 MiB each. */
+    public static AccessLogExporter create(Path file) {
+        return create(file, DEFAULT_BUFFER_SIZE, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_ARCHIVES);
+    }
+
+    /**
+     * Returns an exporter that writes to {@code file}.
+     *
+     * @param bufferSize the number of records that may await writing; must be a power of two
+     * @param maxFileBytes the size after which the file is rotated
+     * @param maxArchives the number of rotated files to keep
+     */
+    public static AccessLogExporter create(Path file, int bufferSize, long maxFileBytes, int maxArchives) {
+        try {
+            return new AccessLogExporter(new AsyncFileWriter<>(
+                    "barista-access-log",
+                    new RotatingFile(file, maxFileBytes, maxArchives),
+                    bufferSize,
+                    AccessLogRecord::new,
+                    AccessLogExporter::format));
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Unable to open access log '%s'", file), e);
+        }
+    }
+
+    /**
+     * Records a completed request.
+     *
+     * @param route the matched route template, or null if the request matched no route
+     * @param requestBytes the length of the request body, or -1 if unknown
+     * @param subject the id of the authenticated user, or null if none
+     * @param traceId the request's trace id, or null if none
+     */
+    public void record(
+            String method,
+            String route,
+            int status,
+            long requestBytes,
+            long responseBytes,
+            long durationNanos,
+            String subject,
+            String traceId) {
+        long sequence = writer.claim();
+        if (sequence >= 0) {
+            AccessLogRecord record = writer.entry(sequence);
+            record.timestampMillis = System.currentTimeMillis();
+            record.method = method;
+            record.route = route;
+            record.status = status;
+            record.requestBytes = requestBytes;
+            record.responseBytes = responseBytes;
+            record.durationNanos = durationNanos;
+            record.subject = subject;
+            record.traceId = traceId;
+            writer.publish(sequence);
+        }
+    }
+
+    /** Returns the number of requests dropped because the exporter could not keep up. */
+    public long droppedRecords() {
+        return writer.dropped();
+    }
+
+    private static void format(AccessLogRecord record, StringBuilder line) {
+        line.append("{\"time\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(record.timestampMillis), line);
+        line.append('"');
+        string(line, "method", record.method);
+        string(line, "route", record.route);
+        line.append(",\"status\":").append(record.status);
+        if (record.requestBytes >= 0) {
+            line.append(",\"requestBytes\":").append(record.requestBytes);
+        }
+        line.append(",\"responseBytes\":").append(record.responseBytes);
+        line.append(",\"durationMicros\":").append(record.durationNanos / 1_000);
+        string(line, "subject", record.subject);
+        string(line, "traceId", record.traceId);
+        line.append('}');
+        record.clear();
+    }
+
+    /** Appends {@code ,"name":"value"} to {@code line}, escaping {@code value}, if it is not null. */
+    static void string(StringBuilder line, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"' || ch == '\\') {
+                line.append('\\').append(ch);
+            } else if (ch < 0x20) {
+                line.append("\\u00").append(HEX[ch >> 4]).append(HEX[ch & 0xf]);
+            } else {
+                line.append(ch);
+            }
+        }
+        line.append('"');
+    }
+
+    /** Writes all recorded requests and closes the file. */
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private static final class AccessLogRecord {
+        private long timestampMillis;
+        private String method;
+        private String route;
+        private int status;
+        private long requestBytes;
+        private long responseBytes;
+        private long durationNanos;
+        private String subject;
+        private String traceId;
+
+        private void clear() {
+            method = null;
+            route = null;
+            subject = null;
+            traceId = null;
+        }
+    }
+}
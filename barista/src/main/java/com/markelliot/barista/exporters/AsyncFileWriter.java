@@ -0,0 +1,161 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.exporters;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes entries to a {@link RotatingFile} from a background thread, one line per entry.
+ *
+ * <p>Producers populate preallocated entries in a {@link RingBuffer} and never block: when the
+ * buffer is full, entries are dropped and counted. The writer thread formats entries in batches and
+ * flushes the file whenever it runs out of entries to write.
+ */
+final class AsyncFileWriter<T> implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(AsyncFileWriter.class);
+
+    private static final int BATCH_SIZE = 512;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long DROP_REPORT_INTERVAL_NANOS = Duration.ofMinutes(1).toNanos();
+
+    /** Appends the line for an entry, without a trailing newline, and clears the entry for reuse. */
+    interface Formatter<T> {
+        void format(T entry, StringBuilder line);
+    }
+
+    private final RingBuffer<T> buffer;
+    private final RotatingFile file;
+    private final Formatter<T> formatter;
+    private final LongAdder dropped = new LongAdder();
+    private final StringBuilder batch = new StringBuilder(BATCH_SIZE * 128);
+    private final Consumer<T> appender = this::append;
+    private final Thread writer;
+    private volatile boolean closed = false;
+
+    AsyncFileWriter(String name, RotatingFile file, int capacity, Supplier<T> entryFactory, Formatter<T> formatter) {
+        this.buffer = new RingBuffer<>(capacity, entryFactory);
+        this.file = file;
+        this.formatter = formatter;
+        this.writer = new Thread(this::run, name);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /** Returns a sequence whose {@link #entry entry} the caller must populate and publish, or -1 if full. */
+    long claim() {
+        long sequence = buffer.claim();
+        if (sequence < 0) {
+            dropped.increment();
+        }
+        return sequence;
+    }
+
+    T entry(long sequence) {
+        return buffer.get(sequence);
+    }
+
+    void publish(long sequence) {
+        buffer.publish(sequence);
+    }
+
+    /** Returns the number of entries dropped because the buffer was full. */
+    long dropped() {
+        return dropped.sum();
+    }
+
+    private void append(T entry) {
+        formatter.format(entry, batch);
+        batch.append('\n');
+    }
+
+    private void run() {
+        long reportedDrops = 0;
+        long lastReport = System.nanoTime();
+        boolean dirty = false;
+        while (true) {
+            boolean finalPass = closed;
+            int drained = buffer.drain(appender, BATCH_SIZE);
+            if (drained > 0) {
+                write();
+                dirty = true;
+                continue;
+            }
+            if (dirty) {
+                flush();
+                dirty = false;
+            }
+            if (finalPass) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            if (now - lastReport > DROP_REPORT_INTERVAL_NANOS) {
+                long drops = dropped.sum();
+                if (drops > reportedDrops) {
+                    log.warn(
+                            "{} dropped {} entries because its buffer was full",
+                            writer.getName(),
+                            drops - reportedDrops);
+                    reportedDrops = drops;
+                }
+                lastReport = now;
+            }
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+    }
+
+    private void write() {
+        byte[] bytes = batch.toString().getBytes(StandardCharsets.UTF_8);
+        batch.setLength(0);
+        try {
+            file.write(bytes, bytes.length);
+        } catch (IOException e) {
+            log.warn("{} failed to write entries", writer.getName(), e);
+        }
+    }
+
+    private void flush() {
+        try {
+            file.flush();
+        } catch (IOException e) {
+            log.warn("{} failed to flush entries", writer.getName(), e);
+        }
+    }
+
+    /** Writes all published entries, then stops the writer thread and closes the file. */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        file.close();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.exporters;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, lock-free ring buffer of preallocated slots for many producers and a single consumer.
+ *
+ * <p>Producers {@link #claim()} a sequence, populate the slot returned by {@link #get(long)} and
+ * then {@link #publish(long)} it. Claiming fails rather than blocks when the buffer is full. The
+ * consumer thread {@link #drain drains} published slots in sequence order; slots are reused, so
+ * the consumer must not retain them.
+ */
+final class RingBuffer<T> {
+    private final int mask;
+    private final Object[] slots;
+    /** The sequence most recently published to each slot. */
+    private final AtomicLongArray published;
+    /** The next sequence producers will claim. */
+    private final AtomicLong claimed = new AtomicLong();
+    /** The next sequence the consumer will read; only written by the consumer. */
+    private final AtomicLong consumed = new AtomicLong();
+
+    RingBuffer(int capacity, Supplier<T> slotFactory) {
+        Preconditions.checkArgument(
+                capacity > 0 && Integer.bitCount(capacity) == 1, "Capacity must be a positive power of two");
+        this.mask = capacity - 1;
+        this.slots = new Object[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = slotFactory.get();
+            published.set(i, -1);
+        }
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    /** Returns the next sequence to populate, or -1 if the buffer is full. */
+    long claim() {
+        while (true) {
+            long sequence = claimed.get();
+            if (sequence - consumed.get() >= slots.length) {
+                return -1;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(long sequence) {
+        return (T) slots[(int) sequence & mask];
+    }
+
+    /** Makes a claimed sequence visible to the consumer. */
+    void publish(long sequence) {
+        published.lazySet((int) sequence & mask, sequence);
+    }
+
+    /**
+     * Passes up to {@code limit} published slots to {@code consumer} in sequence order and returns
+     * how many were consumed. Must only be called from a single thread.
+     */
+    int drain(Consumer<T> consumer, int limit) {
+        long next = consumed.get();
+        int count = 0;
+        while (count < limit && published.get((int) next & mask) == next) {
+            consumer.accept(get(next));
+            next++;
+            count++;
+        }
+        if (count > 0) {
+            consumed.lazySet(next);
+        }
+        return count;
+    }
+}
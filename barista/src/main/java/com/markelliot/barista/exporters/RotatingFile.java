@@ -0,0 +1,97 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.exporters;
+
+import com.google.common.base.Preconditions;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An append-only file that is rotated once it exceeds a maximum size: {@code file} is renamed to
+ * {@code file.1}, {@code file.1} to {@code file.2} and so on, discarding the oldest archive.
+ *
+ * <p>Not thread-safe.
+ */
+final class RotatingFile implements Closeable {
+    private final Path file;
+    private final long maxBytes;
+    private final int maxArchives;
+    private OutputStream out;
+    private long size;
+
+    RotatingFile(Path file, long maxBytes, int maxArchives) throws IOException {
+        Preconditions.checkArgument(maxBytes > 0, "Maximum file size must be positive");
+        Preconditions.checkArgument(maxArchives >= 0, "Maximum archive count must be non-negative");
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxArchives = maxArchives;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        open();
+    }
+
+    void write(byte[] bytes, int length) throws IOException {
+        out.write(bytes, 0, length);
+        size += length;
+        if (size >= maxBytes) {
+            rotate();
+        }
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    private void open() throws IOException {
+        out = new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        size = Files.size(file);
+    }
+
+    private void rotate() throws IOException {
+        out.close();
+        if (maxArchives == 0) {
+            Files.delete(file);
+        } else {
+            for (int i = maxArchives - 1; i > 0; i--) {
+                Path archive = archive(i);
+                if (Files.exists(archive)) {
+                    Files.move(archive, archive(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, archive(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private Path archive(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
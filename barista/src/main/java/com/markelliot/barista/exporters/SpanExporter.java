@@ -0,0 +1,133 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.exporters;
+
+import com.markelliot.barista.RequestTimings;
+import com.markelliot.barista.tracing.CompletedSpan;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports finished spans and request timings to a rotating file, one per line, from a background
+ * thread.
+ *
+ * <p>Spans are written as {@code span traceId=<id> spanId=<id> [parentId=<id>] start=<epoch us>
+ * duration=<us>us op=<operation>}; the operation comes last because it may contain spaces.
+ * Timings are written as described by {@link RequestTimings#toString()}.
+ *
+ * <p>Exporting never blocks: records are handed off through a bounded buffer and dropped when it
+ * is full. {@link #droppedSpans()} reports how many were dropped.
+ */
+public final class SpanExporter implements Closeable {
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final long DEFAULT_MAX_FILE_BYTES = 64L * 1024 * 1024;
+    private static final int DEFAULT_MAX_ARCHIVES = 5;
+
+    private final AsyncFileWriter<SpanEntry> writer;
+
+    private SpanExporter(AsyncFileWriter<SpanEntry> writer) {
+        this.writer = writer;
+    }
+
+    /** Returns an exporter that writes to {@code file}, keeping 5 archives of up to 64 MiB each. */
+    public static SpanExporter create(Path file) {
+        return create(file, DEFAULT_BUFFER_SIZE, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_ARCHIVES);
+    }
+
+    /**
+     * Returns an exporter that writes to {@code file}.
+     *
+     * @param bufferSize the number of spans that may await writing; must be a power of two
+     * @param maxFileBytes the size after which the file is rotated
+     * @param maxArchives the number of rotated files to keep
+     */
+    public static SpanExporter create(Path file, int bufferSize, long maxFileBytes, int maxArchives) {
+        try {
+            return new SpanExporter(new AsyncFileWriter<>(
+                    "barista-span-exporter",
+                    new RotatingFile(file, maxFileBytes, maxArchives),
+                    bufferSize,
+                    SpanEntry::new,
+                    SpanExporter::write));
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Unable to open span log '%s'", file), e);
+        }
+    }
+
+    public void export(CompletedSpan span) {
+        long sequence = writer.claim();
+        if (sequence >= 0) {
+            writer.entry(sequence).span = span;
+            writer.publish(sequence);
+        }
+    }
+
+    public void export(RequestTimings timings) {
+        long sequence = writer.claim();
+        if (sequence >= 0) {
+            writer.entry(sequence).timings = timings;
+            writer.publish(sequence);
+        }
+    }
+
+    /** Returns the line {@code span} is exported as. */
+    public static String format(CompletedSpan span) {
+        StringBuilder line = new StringBuilder(128);
+        format(span, line);
+        return line.toString();
+    }
+
+    /** Returns the number of spans and timings dropped because the exporter could not keep up. */
+    public long droppedSpans() {
+        return writer.dropped();
+    }
+
+    private static void write(SpanEntry entry, StringBuilder line) {
+        if (entry.span != null) {
+            format(entry.span, line);
+        } else {
+            line.append(entry.timings);
+        }
+        entry.span = null;
+        entry.timings = null;
+    }
+
+    private static void format(CompletedSpan span, StringBuilder line) {
+        line.append("span traceId=").append(span.traceId()).append(" spanId=").append(span.spanId());
+        span.parentId().ifPresent(parentId -> line.append(" parentId=").append(parentId));
+        line.append(" start=")
+                .append(span.startEpochMicros())
+                .append(" duration=")
+                .append(TimeUnit.NANOSECONDS.toMicros(span.durationNanos()))
+                .append("us op=")
+                .append(span.opName());
+    }
+
+    /** Writes all exported spans and closes the file. */
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    /** Holds either a span or a request's timings. */
+    private static final class SpanEntry {
+        private CompletedSpan span;
+        private RequestTimings timings;
+    }
+}
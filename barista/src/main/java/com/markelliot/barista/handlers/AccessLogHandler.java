@@ -0,0 +1,59 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.handlers;
+
+import com.markelliot.barista.RequestTimings;
+import com.markelliot.barista.endpoints.EndpointRuntime;
+import com.markelliot.barista.exporters.AccessLogExporter;
+import com.markelliot.barista.warmup.WarmUp;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HttpString;
+import io.undertow.util.PathTemplateMatch;
+
+/**
+ * Records each request into an access log when it completes, with its route, status, sizes,
+ * latency, authenticated user and trace id. Latency is measured from the request's {@link
+ * RequestTimings}, so it includes time spent waiting for a worker thread. {@link WarmUp} requests
+ * are not logged.
+ */
+public record AccessLogHandler(AccessLogExporter accessLog, HttpHandler delegate) implements HttpHandler {
+    private static final HttpString TRACE_ID = HttpString.tryFromString("X-B3-TraceId");
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (WarmUp.isWarmUp(exchange)) {
+            delegate.handleRequest(exchange);
+            return;
+        }
+        RequestTimings timings = RequestTimings.of(exchange);
+        exchange.addExchangeCompleteListener((completed, next) -> {
+            PathTemplateMatch match = completed.getAttachment(PathTemplateMatch.ATTACHMENT_KEY);
+            accessLog.record(
+                    completed.getRequestMethod().toString(),
+                    match == null ? null : match.getMatchedTemplate(),
+                    completed.getStatusCode(),
+                    completed.getRequestContentLength(),
+                    completed.getResponseBytesSent(),
+                    timings.elapsedNanos(),
+                    EndpointRuntime.subject(completed),
+                    completed.getResponseHeaders().getFirst(TRACE_ID));
+            next.proceed();
+        });
+        delegate.handleRequest(exchange);
+    }
+}
@@ -16,17 +16,27 @@
 
 package com.markelliot.barista.handlers;
 
+import com.markelliot.barista.RequestTimings;
+import com.markelliot.barista.jfr.DispatchEvent;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 
-/** An {@link HttpHandler} that ensures work is done off of IO threads. */
+/**
+ * An {@link HttpHandler} that ensures work is done off of IO threads, recording the time requests
+ * spend waiting for a worker thread in their {@link RequestTimings}.
+ */
 public record DispatchFromIoThreadHandler(HttpHandler delegate) implements HttpHandler {
     @Override
     public void handleRequest(HttpServerExchange exchange) throws Exception {
+        RequestTimings timings = RequestTimings.of(exchange);
         if (exchange.isInIoThread()) {
+            timings.dispatched();
             exchange.dispatch(this);
             return;
         }
+        if (timings.started()) {
+            DispatchEvent.commit(exchange, timings.nanos(RequestTimings.Phase.QUEUE));
+        }
         delegate.handleRequest(exchange);
     }
 }
@@ -0,0 +1,36 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.handlers;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+
+/**
+ * Closes HTTP/1.1 connections after their current response once {@code readiness} is draining, so
+ * that clients holding keep-alive connections reconnect, and are routed elsewhere, before the
+ * server stops accepting requests.
+ */
+public record DrainHandler(Readiness readiness, HttpHandler delegate) implements HttpHandler {
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (readiness.isDraining()) {
+            // Undertow responds with 'Connection: close' to non-persistent exchanges
+            exchange.setPersistent(false);
+        }
+        delegate.handleRequest(exchange);
+    }
+}
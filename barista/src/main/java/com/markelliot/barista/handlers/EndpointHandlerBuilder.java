@@ -26,6 +26,8 @@ import com.markelliot.barista.endpoints.EndpointRuntime;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.server.RoutingHandler;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Optional;
 import java.util.Set;
@@ -33,24 +35,50 @@ import java.util.TreeMap;
 import java.util.function.Consumer;
 
 public final class EndpointHandlerBuilder {
-    private final SerDe serde;
-    private final Authz authz;
+    private static final ByteBuffer NOT_FOUND = ByteBuffer.wrap("Unknown API Endpoint".getBytes(StandardCharsets.UTF_8))
+            .asReadOnlyBuffer();
+
+    private final EndpointRuntime runtime;
     private final Optional<Consumer<Request>> fallbackHandler;
 
     public EndpointHandlerBuilder(SerDe serde, Authz authz, Optional<Consumer<Request>> fallbackHandler) {
+        this(new EndpointRuntime(serde, authz), fallbackHandler);
+    }
+
+    public EndpointHandlerBuilder(EndpointRuntime runtime, Optional<Consumer<Request>> fallbackHandler) {
         this.fallbackHandler = fallbackHandler;
-        this.serde = serde;
-        this.authz = authz;
+        this.runtime = runtime;
     }
 
+    /**
+     * Returns a handler routing requests to {@code endpointHandlers}.
+     *
+     * @throws IllegalArgumentException if any routes are malformed or conflict, see {@link
+     *     RouteTable#of}
+     */
     public HttpHandler build(Set<EndpointHandler> endpointHandlers) {
-        EndpointRuntime runtime = new EndpointRuntime(serde, authz);
+        return build(RouteTable.of(endpointHandlers));
+    }
+
+    public HttpHandler build(RouteTable routes) {
+        return build(routes, handler -> handler);
+    }
+
+    /**
+     * Returns a handler routing requests to {@code routes}, where each endpoint's handler and the
+     * fallback for unrouted requests are wrapped by {@code routed}. Handlers added by {@code
+     * routed} run after routing, so they can use {@link RouteTable#index(HttpServerExchange)}.
+     */
+    public HttpHandler build(RouteTable routes, DelegatingHandler routed) {
         RoutingHandler router = new RoutingHandler(false);
-        endpointHandlers.forEach(e -> router.add(e.method().method(), e.route(), e.handler(runtime)));
-        router.setFallbackHandler(exchange -> {
+        for (RouteTable.Route route : routes.routes()) {
+            router.add(
+                    route.method().method(), route.template().template(), RouteTable.handler(route, runtime, routed));
+        }
+        router.setFallbackHandler(routed.handler(exchange -> {
             fallbackHandler.ifPresent(requestConsumer -> requestConsumer.accept(toRequest(exchange)));
-            exchange.setStatusCode(404).getResponseSender().send("Unknown API Endpoint");
-        });
+            exchange.setStatusCode(404).getResponseSender().send(NOT_FOUND.duplicate());
+        }));
         return router;
     }
 
@@ -0,0 +1,38 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.handlers;
+
+import com.markelliot.barista.metrics.MetricsRegistry;
+import com.markelliot.barista.metrics.PrometheusWriter;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+
+/** Serves GET requests for {@code path} with a scrape of {@code registry}. */
+public record PrometheusHandler(MetricsRegistry registry, String path, HttpHandler delegate) implements HttpHandler {
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (!exchange.getRequestMethod().equals(Methods.GET)
+                || !exchange.getRelativePath().equals(path)) {
+            delegate.handleRequest(exchange);
+            return;
+        }
+        exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, PrometheusWriter.CONTENT_TYPE);
+        exchange.getResponseSender().send(registry.scrape());
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.handlers;
+
+/**
+ * Whether a server should receive traffic: it becomes ready once started and stops being ready as
+ * soon as it starts draining, ahead of shutting down.
+ */
+public final class Readiness {
+    private volatile boolean ready = false;
+    private volatile boolean draining = false;
+
+    public void ready() {
+        ready = true;
+    }
+
+    public void drain() {
+        draining = true;
+    }
+
+    public boolean isReady() {
+        return ready && !draining;
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.handlers;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import io.undertow.util.StatusCodes;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves GET requests for {@code path} with 200 while {@code readiness} is ready and 503 otherwise,
+ * for load balancers to stop routing to a server before it shuts down.
+ */
+public record ReadinessHandler(Readiness readiness, String path, HttpHandler delegate) implements HttpHandler {
+    private static final ByteBuffer READY = encode("ready");
+    private static final ByteBuffer NOT_READY = encode("not ready");
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (!exchange.getRequestMethod().equals(Methods.GET)
+                || !exchange.getRelativePath().equals(path)) {
+            delegate.handleRequest(exchange);
+            return;
+        }
+        boolean ready = readiness.isReady();
+        exchange.setStatusCode(ready ? StatusCodes.OK : StatusCodes.SERVICE_UNAVAILABLE);
+        exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "text/plain");
+        exchange.getResponseSender().send((ready ? READY : NOT_READY).duplicate());
+    }
+
+    private static ByteBuffer encode(String body) {
+        return ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.handlers;
+
+import com.markelliot.barista.RequestTimings;
+import com.markelliot.barista.metrics.RequestMetrics;
+import com.markelliot.barista.warmup.WarmUp;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+
+/**
+ * Records each request into {@link RequestMetrics} when it completes, measuring from the request's
+ * {@link RequestTimings} so that time spent waiting for a worker thread is included. That wait is
+ * also recorded on its own.
+ *
+ * <p>Requests count towards the requests in flight of the endpoint they are routed to once they
+ * pass a {@link Routed} handler, which the server places after routing.
+ *
+ * <p>{@link WarmUp} requests are not recorded.
+ */
+public record RequestMetricsHandler(RequestMetrics metrics, HttpHandler delegate) implements HttpHandler {
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (WarmUp.isWarmUp(exchange)) {
+            delegate.handleRequest(exchange);
+            return;
+        }
+        RequestTimings timings = RequestTimings.of(exchange);
+        metrics.started(exchange);
+        long queued = timings.nanos(RequestTimings.Phase.QUEUE);
+        if (queued >= 0) {
+            metrics.queued(queued);
+        }
+        exchange.addExchangeCompleteListener((completed, next) -> {
+            metrics.completed(completed, timings.elapsedNanos(), timings.cpuNanos(), timings.allocatedBytes());
+            next.proceed();
+        });
+        delegate.handleRequest(exchange);
+    }
+
+    /** Notes that requests reaching this handler have been routed, see {@link RequestMetrics#routed}. */
+    public record Routed(RequestMetrics metrics, HttpHandler delegate) implements HttpHandler {
+        @Override
+        public void handleRequest(HttpServerExchange exchange) throws Exception {
+            if (!WarmUp.isWarmUp(exchange)) {
+                metrics.routed(exchange);
+            }
+            delegate.handleRequest(exchange);
+        }
+    }
+}
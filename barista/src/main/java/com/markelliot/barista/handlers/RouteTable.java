@@ -0,0 +1,112 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.handlers;
+
+import com.markelliot.barista.HttpMethod;
+import com.markelliot.barista.endpoints.EndpointHandler;
+import com.markelliot.barista.endpoints.EndpointRuntime;
+import com.markelliot.barista.endpoints.RouteTemplate;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.AttachmentKey;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The server's endpoints, validated together and numbered densely in registration order.
+ *
+ * <p>Requests routed to an endpoint carry its {@link Route}, so per-endpoint state can be kept in
+ * arrays indexed by {@link #index(HttpServerExchange)} rather than looked up by method and
+ * template.
+ */
+public final class RouteTable {
+    private static final AttachmentKey<Route> KEY = AttachmentKey.create(Route.class);
+
+    private final List<Route> routes;
+
+    private RouteTable(List<Route> routes) {
+        this.routes = routes;
+    }
+
+    public record Route(int index, HttpMethod method, RouteTemplate template, EndpointHandler endpoint) {
+        @Override
+        public String toString() {
+            return method + " " + template.template();
+        }
+    }
+
+    /**
+     * Builds the route table of {@code endpoints} in a single pass.
+     *
+     * @throws IllegalArgumentException listing every route that is malformed or conflicts with an
+     *     earlier one, that is, has the same method and matches exactly the same paths
+     */
+    public static RouteTable of(Collection<EndpointHandler> endpoints) {
+        List<Route> routes = new ArrayList<>(endpoints.size());
+        Map<String, Route> byShape = new HashMap<>();
+        List<String> errors = new ArrayList<>();
+        for (EndpointHandler endpoint : endpoints) {
+            RouteTemplate template;
+            try {
+                template = RouteTemplate.parse(endpoint.route());
+            } catch (IllegalArgumentException e) {
+                errors.add(e.getMessage());
+                continue;
+            }
+            Route route = new Route(routes.size(), endpoint.method(), template, endpoint);
+            Route existing = byShape.putIfAbsent(endpoint.method() + " " + template.shape(), route);
+            if (existing != null) {
+                errors.add("Route " + route + " conflicts with " + existing);
+                continue;
+            }
+            routes.add(route);
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid routes: " + String.join("; ", errors));
+        }
+        return new RouteTable(List.copyOf(routes));
+    }
+
+    public List<Route> routes() {
+        return routes;
+    }
+
+    public int size() {
+        return routes.size();
+    }
+
+    /** Returns the index of the route {@code exchange} was routed to, or -1 if it wasn't. */
+    public static int index(HttpServerExchange exchange) {
+        Route route = exchange.getAttachment(KEY);
+        return route == null ? -1 : route.index();
+    }
+
+    /**
+     * Returns the handler of {@code route}'s endpoint, which marks the requests it handles, with the
+     * endpoint's handler wrapped by {@code routed}, which runs once the request is marked.
+     */
+    static HttpHandler handler(Route route, EndpointRuntime runtime, DelegatingHandler routed) {
+        HttpHandler handler = routed.handler(route.endpoint().handler(runtime));
+        return exchange -> {
+            exchange.putAttachment(KEY, route);
+            handler.handleRequest(exchange);
+        };
+    }
+}
@@ -16,40 +16,111 @@
 
 package com.markelliot.barista.handlers;
 
+import com.markelliot.barista.RequestTimings;
+import com.markelliot.barista.TraceContext;
+import com.markelliot.barista.jfr.RequestEvent;
+import com.markelliot.barista.sampling.Sampler;
+import com.markelliot.barista.sampling.TailSampler;
 import com.markelliot.barista.tracing.Ids;
 import com.markelliot.barista.tracing.Span;
 import com.markelliot.barista.tracing.Trace;
 import com.markelliot.barista.tracing.Traces;
+import com.markelliot.barista.warmup.WarmUp;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.util.HttpString;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
-public record TracingHandler(double rate, HttpHandler delegate) implements HttpHandler {
+/**
+ * Starts a span for each request, continuing the trace described by B3 request headers if present.
+ *
+ * <p>New traces are sampled by {@code sampler}. If a {@link TailSampler} is provided, every request
+ * is traced and the sampler's decision is instead one of the criteria by which the tail sampler
+ * decides whether to export the request's spans once it completes.
+ *
+ * <p>The {@link RequestTimings} of sampled requests are passed to {@code timingsExporter} when the
+ * request completes, or to the tail sampler alongside the request's spans.
+ *
+ * <p>The request's trace is attached to the exchange as a {@link TraceContext}, so that endpoints
+ * can propagate it to the services they call.
+ *
+ * <p>When recording with Java Flight Recorder, a {@link RequestEvent} is committed for each request.
+ *
+ * <p>{@link WarmUp} requests are not traced.
+ */
+public record TracingHandler(
+        Sampler sampler,
+        Optional<TailSampler> tailSampler,
+        Consumer<RequestTimings> timingsExporter,
+        HttpHandler delegate)
+        implements HttpHandler {
     private static final HttpString TRACE_ID = HttpString.tryFromString("X-B3-TraceId");
     private static final HttpString SAMPLED = HttpString.tryFromString("X-B3-Sampled");
     private static final HttpString SPAN_ID = HttpString.tryFromString("X-B3-SpanId");
 
+    public TracingHandler(Sampler sampler, HttpHandler delegate) {
+        this(sampler, Optional.empty(), timings -> {}, delegate);
+    }
+
+    public TracingHandler(double rate, HttpHandler delegate) {
+        this(Sampler.rate(rate), delegate);
+    }
+
     @Override
     public void handleRequest(HttpServerExchange exchange) throws Exception {
-        Trace trace = getTraceForRequest(exchange);
+        if (WarmUp.isWarmUp(exchange)) {
+            delegate.handleRequest(exchange);
+            return;
+        }
+        if (RequestEvent.enabled()) {
+            RequestEvent event = new RequestEvent();
+            event.begin();
+            exchange.addExchangeCompleteListener((completed, next) -> {
+                event.complete(completed);
+                next.proceed();
+            });
+        }
+        if (tailSampler.isPresent()) {
+            handleTailSampledRequest(exchange, tailSampler.get());
+            return;
+        }
+        String traceId = getId(exchange, TRACE_ID);
+        boolean sampled = traceId != null ? isSampled(exchange) : sampler.sample(exchange);
+        Trace trace = Traces.create(traceId != null ? traceId : Ids.randomId(), sampled);
         Span span = getSpanForRequest(exchange, trace);
-        exchange.addExchangeCompleteListener((ignored, next) -> {
+        exchange.addExchangeCompleteListener((completed, next) -> {
             span.close();
+            if (sampled) {
+                timingsExporter.accept(completeTimings(completed, span));
+            }
             next.proceed();
         });
         // Populate response before proceeding since later operations might commit the response.
-        setExchangeState(exchange, span);
+        setExchangeState(exchange, span, sampled);
         delegate.handleRequest(exchange);
     }
 
-    private Trace getTraceForRequest(HttpServerExchange exchange) {
+    private void handleTailSampledRequest(HttpServerExchange exchange, TailSampler tail) throws Exception {
         String traceId = getId(exchange, TRACE_ID);
-        if (traceId != null) {
-            return Traces.create(traceId, isSampled(exchange));
-        }
-        return Traces.create(Ids.randomId(), ThreadLocalRandom.current().nextDouble() < rate);
+        boolean sampled = traceId != null ? isSampled(exchange) : sampler.sample(exchange);
+        Trace trace = Traces.create(traceId != null ? traceId : Ids.randomId(), true);
+        Span span = getSpanForRequest(exchange, trace);
+        TailSampler.Buffer buffer = tail.start(span.traceId(), sampled);
+        exchange.addExchangeCompleteListener((completed, next) -> {
+            span.close();
+            buffer.complete(completed.getStatusCode(), completeTimings(completed, span));
+            next.proceed();
+        });
+        setExchangeState(exchange, span, sampled);
+        delegate.handleRequest(exchange);
+    }
+
+    private static RequestTimings completeTimings(HttpServerExchange exchange, Span span) {
+        RequestTimings timings = RequestTimings.of(exchange);
+        timings.complete(span.traceId());
+        return timings;
     }
 
     private static boolean isSampled(HttpServerExchange exchange) {
@@ -79,7 +150,8 @@ public record TracingHandler(double rate, HttpHandler delegate) implements HttpH
         return null;
     }
 
-    private static void setExchangeState(HttpServerExchange exchange, Span span) {
+    private static void setExchangeState(HttpServerExchange exchange, Span span, boolean sampled) {
         exchange.getResponseHeaders().put(TRACE_ID, span.traceId());
+        new TraceContext(span.traceId(), span.spanId(), sampled).attach(exchange);
     }
 }
@@ -0,0 +1,49 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.jfr;
+
+import com.markelliot.barista.warmup.WarmUp;
+import io.undertow.server.HttpServerExchange;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.markelliot.barista.Auth")
+@Label("Auth Verified")
+@Description("Verification of a request's auth token")
+public final class AuthEvent extends BaristaEvent {
+    private static final EventType TYPE = EventType.getEventType(AuthEvent.class);
+
+    @Label("Authorized")
+    boolean authorized;
+
+    /** Returns true if a running recording has enabled this event. */
+    public static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+
+    /** Commits this event for {@code exchange}. */
+    public void complete(HttpServerExchange exchange, boolean isAuthorized) {
+        end();
+        if (shouldCommit() && !WarmUp.isWarmUp(exchange)) {
+            describe(exchange);
+            authorized = isAuthorized;
+            commit();
+        }
+    }
+}
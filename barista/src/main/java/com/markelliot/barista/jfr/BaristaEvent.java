@@ -0,0 +1,44 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.jfr;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HttpString;
+import io.undertow.util.PathTemplateMatch;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/** Fields shared by the events of a request that has been routed to an endpoint. */
+@Category("Barista")
+abstract class BaristaEvent extends Event {
+    private static final HttpString TRACE_ID = HttpString.tryFromString("X-B3-TraceId");
+
+    @Label("Route")
+    String route;
+
+    @Label("Trace ID")
+    String traceId;
+
+    /** Sets this event's route and trace id from {@code exchange}. */
+    final void describe(HttpServerExchange exchange) {
+        PathTemplateMatch match = exchange.getAttachment(PathTemplateMatch.ATTACHMENT_KEY);
+        route = match == null ? null : match.getMatchedTemplate();
+        // set by TracingHandler before the request reaches any endpoint
+        traceId = exchange.getResponseHeaders().getFirst(TRACE_ID);
+    }
+}
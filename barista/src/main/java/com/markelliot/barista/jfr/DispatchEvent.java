@@ -0,0 +1,59 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.jfr;
+
+import com.markelliot.barista.warmup.WarmUp;
+import io.undertow.server.HttpServerExchange;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("com.markelliot.barista.Dispatch")
+@Label("HTTP Request Dispatched")
+@Description("A request started on a worker thread after being dispatched from an IO thread")
+@Category("Barista")
+public final class DispatchEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(DispatchEvent.class);
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Queue Time")
+    @Description("Time spent waiting for a worker thread")
+    @Timespan
+    long queueTime;
+
+    /** Records that {@code exchange} started on this thread after waiting {@code queueNanos}. */
+    public static void commit(HttpServerExchange exchange, long queueNanos) {
+        if (TYPE.isEnabled() && !WarmUp.isWarmUp(exchange)) {
+            DispatchEvent event = new DispatchEvent();
+            if (event.shouldCommit()) {
+                event.method = exchange.getRequestMethod().toString();
+                event.path = exchange.getRequestPath();
+                event.queueTime = queueNanos;
+                event.commit();
+            }
+        }
+    }
+}
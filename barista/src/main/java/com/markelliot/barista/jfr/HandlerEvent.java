@@ -0,0 +1,50 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.jfr;
+
+import com.markelliot.barista.warmup.WarmUp;
+import io.undertow.server.HttpServerExchange;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.markelliot.barista.Handler")
+@Label("Endpoint Handler")
+@Description("The run of an endpoint's method, from its start until it returned or threw")
+public final class HandlerEvent extends BaristaEvent {
+    private static final EventType TYPE = EventType.getEventType(HandlerEvent.class);
+
+    @Label("Failed")
+    @Description("Whether the endpoint threw an exception")
+    boolean failed;
+
+    /** Returns true if a running recording has enabled this event. */
+    public static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+
+    /** Commits this event for {@code exchange}. */
+    public void complete(HttpServerExchange exchange, boolean threw) {
+        end();
+        if (shouldCommit() && !WarmUp.isWarmUp(exchange)) {
+            describe(exchange);
+            failed = threw;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.jfr;
+
+import com.markelliot.barista.warmup.WarmUp;
+import io.undertow.server.HttpServerExchange;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event spanning a request from when tracing starts until its response
+ * completes.
+ *
+ * <p>Within it, {@link DispatchEvent} records the wait for a worker thread, and {@link AuthEvent},
+ * {@link HandlerEvent} and {@link ResponseEvent} span auth verification, the endpoint's method and
+ * writing the response. Events carry the route and trace id so that recordings can be filtered to
+ * an endpoint and correlated with traces. Events are only allocated while a recording has enabled
+ * them, and none are committed for warm-up requests.
+ */
+@Name("com.markelliot.barista.Request")
+@Label("HTTP Request")
+@Description("A request, from when it was received until its response completed")
+public final class RequestEvent extends BaristaEvent {
+    private static final EventType TYPE = EventType.getEventType(RequestEvent.class);
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+
+    /** Returns true if a running recording has enabled this event. */
+    public static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+
+    /** Commits this event for the completed {@code exchange}. */
+    public void complete(HttpServerExchange exchange) {
+        end();
+        if (shouldCommit() && !WarmUp.isWarmUp(exchange)) {
+            describe(exchange);
+            method = exchange.getRequestMethod().toString();
+            path = exchange.getRequestPath();
+            status = exchange.getStatusCode();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records values into a {@link Recorder} and reports them as a Prometheus histogram, scaled to a
+ * base unit such as seconds.
+ *
+ * <p>Each collection folds the values recorded since the previous one into a cumulative histogram,
+ * and remembers their maximum so that short spikes remain visible between scrapes.
+ *
+ * <p>As Prometheus requires, each {@code le} bucket counts only values at or below its boundary.
+ * Boundaries rarely coincide with the edges of {@link Histogram}'s buckets, so values up to 6.25%
+ * below a boundary may be counted in the next {@code le} bucket instead.
+ */
+public final class Distribution {
+    private static final double[] SECONDS = {
+        0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    private static final double[] BYTES = {
+        1 << 10, 4 << 10, 16 << 10, 64 << 10, 256 << 10, 1 << 20, 4 << 20, 16 << 20, 64 << 20, 256 << 20
+    };
+
+    private final double[] buckets;
+    private final long[] bucketValues;
+    private final double valuesPerUnit;
+    private final Recorder recorder = new Recorder();
+    private final Histogram cumulative = new Histogram();
+    private long lastIntervalMax = 0;
+
+    private Distribution(double[] buckets, double valuesPerUnit) {
+        this.buckets = buckets;
+        this.valuesPerUnit = valuesPerUnit;
+        this.bucketValues = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            bucketValues[i] = (long) (buckets[i] * valuesPerUnit);
+        }
+    }
+
+    /** Returns a distribution of durations recorded in nanoseconds and reported in seconds. */
+    public static Distribution seconds() {
+        return new Distribution(SECONDS, TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /** Returns a distribution of sizes recorded and reported in bytes. */
+    public static Distribution bytes() {
+        return new Distribution(BYTES, 1);
+    }
+
+    public void record(long value) {
+        recorder.record(value);
+    }
+
+    /** Writes the histogram's samples; {@code labels} alternate between label names and values. */
+    public synchronized void collect(PrometheusWriter writer, String name, String... labels) {
+        Histogram interval = recorder.interval();
+        lastIntervalMax = interval.max();
+        cumulative.add(interval);
+
+        String bucket = name + "_bucket";
+        for (int i = 0; i < bucketValues.length; i++) {
+            writer.sample(
+                    bucket, cumulative.countAtOrBelow(bucketValues[i]), with(labels, Double.toString(buckets[i])));
+        }
+        long count = cumulative.count();
+        writer.sample(bucket, count, with(labels, "+Inf"))
+                .sample(name + "_sum", cumulative.sum() / valuesPerUnit, labels)
+                .sample(name + "_count", count, labels);
+    }
+
+    /** Returns the maximum value recorded before the most recent collection, in the base unit. */
+    public synchronized double lastIntervalMax() {
+        return lastIntervalMax / valuesPerUnit;
+    }
+
+    private static String[] with(String[] labels, String le) {
+        String[] withLe = new String[labels.length + 2];
+        System.arraycopy(labels, 0, withLe, 0, labels.length);
+        withLe[labels.length] = "le";
+        withLe[labels.length + 1] = le;
+        return withLe;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.metrics;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative long values with log-linear buckets.
+ *
+ * <p>Values below 32 are counted exactly; larger values fall into one of 16 equally sized buckets
+ * per power of two, so that any recorded value is known to within 6.25%. Values above {@link
+ * #MAX_VALUE} (about 73 minutes in nanoseconds) are counted as {@code MAX_VALUE}.
+ */
+public final class Histogram {
+    public static final long MAX_VALUE = (1L << 42) - 1;
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    private static final int BUCKETS = index(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        Preconditions.checkArgument(value >= 0, "Histograms record non-negative values");
+        long clamped = Math.min(value, MAX_VALUE);
+        counts.getAndIncrement(index(clamped));
+        sum.getAndAdd(clamped);
+        long current = max.get();
+        while (clamped > current && !max.weakCompareAndSetVolatile(current, clamped)) {
+            current = max.get();
+        }
+    }
+
+    /** Returns the number of values recorded. */
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /** Returns the sum of the values recorded. */
+    public long sum() {
+        return sum.get();
+    }
+
+    /** Returns the largest value recorded, or 0 if none were. */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the number of recorded values known to be at most {@code value}: those in buckets
+     * whose upper bound is at most {@code value}. Values in the bucket containing {@code value} are
+     * excluded unless it ends at {@code value}, so the result may be low by that bucket's count but
+     * never includes values greater than {@code value}.
+     */
+    public long countAtOrBelow(long value) {
+        long clamped = Math.min(value, MAX_VALUE);
+        int last = index(clamped);
+        if (upperBound(last) > clamped) {
+            last--;
+        }
+        long count = 0;
+        for (int i = 0; i <= last; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns an upper bound on the value at {@code quantile}, which must be in range [0, 1], or 0 if
+     * no values were recorded.
+     */
+    public long valueAtQuantile(double quantile) {
+        Preconditions.checkArgument(0.0 <= quantile && quantile <= 1.0, "Quantile must be in range [0, 1]");
+        long rank = (long) Math.ceil(quantile * count());
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank && seen > 0) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return 0;
+    }
+
+    /** Adds the values recorded by {@code other} to this histogram. */
+    public void add(Histogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.getAndAdd(i, count);
+            }
+        }
+        sum.getAndAdd(other.sum());
+        long otherMax = other.max();
+        long current = max.get();
+        while (otherMax > current && !max.weakCompareAndSetVolatile(current, otherMax)) {
+            current = max.get();
+        }
+    }
+
+    /** Clears this histogram; must not race with {@link #record(long)}. */
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        sum.set(0);
+        max.set(0);
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF_SUB_BUCKETS - 1;
+        long subBucket = index % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
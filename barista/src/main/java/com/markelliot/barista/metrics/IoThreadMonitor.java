@@ -0,0 +1,138 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.metrics;
+
+import com.markelliot.barista.Threads;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xnio.XnioExecutor;
+import org.xnio.XnioIoThread;
+import org.xnio.XnioWorker;
+
+/**
+ * Measures how late each IO thread of an {@link XnioWorker} runs tasks, and optionally logs the
+ * stack of any IO thread that stops running tasks for longer than a threshold.
+ *
+ * <p>A probe task is scheduled on every IO thread; the difference between when it was due and when
+ * it ran is the thread's event loop lag. A thread whose probe is overdue by more than the blocked
+ * threshold is almost certainly running a blocking call, which stalls every connection it serves.
+ */
+public final class IoThreadMonitor implements MetricsRegistry.Collector, Closeable {
+    private static final Logger log = LoggerFactory.getLogger(IoThreadMonitor.class);
+    private static final String LAG = "barista_io_thread_lag_seconds";
+    private static final long PROBE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final XnioWorker worker;
+    private final List<Probe> probes = new ArrayList<>();
+    private final Distribution lag = Distribution.seconds();
+    private final Optional<ScheduledExecutorService> watchdog;
+    private volatile boolean closed = false;
+
+    /**
+     * Starts probing the IO threads of {@code worker}, logging those blocked for longer than {@code
+     * blockedThreshold} if present.
+     */
+    public IoThreadMonitor(XnioWorker worker, Optional<Duration> blockedThreshold) {
+        this.worker = worker;
+        for (int i = 0; i < worker.getIoThreadCount(); i++) {
+            Probe probe = new Probe(worker.getIoThread(i));
+            probes.add(probe);
+            probe.schedule();
+        }
+        this.watchdog = blockedThreshold.map(threshold -> {
+            ScheduledExecutorService executor = Threads.daemonScheduler("barista-io-watchdog");
+            long thresholdNanos = threshold.toNanos();
+            long period = Math.max(TimeUnit.MILLISECONDS.toNanos(10), thresholdNanos / 2);
+            executor.scheduleAtFixedRate(() -> checkBlocked(thresholdNanos), period, period, TimeUnit.NANOSECONDS);
+            return executor;
+        });
+    }
+
+    private void checkBlocked(long thresholdNanos) {
+        if (worker.isShutdown()) {
+            // IO threads stop running probes once the server begins to stop
+            return;
+        }
+        long now = System.nanoTime();
+        for (Probe probe : probes) {
+            long overdue = now - probe.dueNanos;
+            if (overdue > thresholdNanos && !probe.reported) {
+                probe.reported = true;
+                log.warn(
+                        "IO thread {} blocked for {} ms",
+                        probe.thread.getName(),
+                        TimeUnit.NANOSECONDS.toMillis(overdue),
+                        new Threads.Stack("Stack of blocked IO thread " + probe.thread.getName(), probe.thread));
+            }
+        }
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.family(LAG, "histogram", "Delay between when IO thread tasks are due and when they run.");
+        lag.collect(writer, LAG);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        watchdog.ifPresent(ScheduledExecutorService::shutdownNow);
+        for (Probe probe : probes) {
+            if (probe.key != null) {
+                probe.key.remove();
+            }
+        }
+    }
+
+    private final class Probe implements Runnable {
+        private final XnioIoThread thread;
+        private volatile long dueNanos;
+        private volatile boolean reported = false;
+        private volatile XnioExecutor.Key key;
+
+        Probe(XnioIoThread thread) {
+            this.thread = thread;
+        }
+
+        void schedule() {
+            dueNanos = System.nanoTime() + PROBE_INTERVAL_NANOS;
+            try {
+                key = thread.executeAfter(this, PROBE_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // the worker is shutting down
+                dueNanos = Long.MAX_VALUE;
+            }
+        }
+
+        @Override
+        public void run() {
+            lag.record(Math.max(0, System.nanoTime() - dueNanos));
+            reported = false;
+            if (!closed) {
+                schedule();
+            }
+        }
+    }
+}
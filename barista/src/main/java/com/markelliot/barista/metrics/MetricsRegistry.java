@@ -0,0 +1,72 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.metrics;
+
+import com.google.common.base.Preconditions;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * A set of metrics exposed together in the Prometheus text format.
+ *
+ * <p>The registry holds no metric state of its own: counters and gauges are read from the objects
+ * that maintain them when the registry is scraped, so recording a value never touches the
+ * registry.
+ */
+public final class MetricsRegistry {
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+    /** Writes one or more metric families. */
+    public interface Collector {
+        void collect(PrometheusWriter writer);
+    }
+
+    private final List<Collector> collectors = new CopyOnWriteArrayList<>();
+
+    /** Registers a counter whose monotonically increasing value is read from {@code count}. */
+    public MetricsRegistry counter(String name, String help, LongSupplier count) {
+        checkName(name);
+        return register(writer -> writer.family(name, "counter", help).sample(name, count.getAsLong()));
+    }
+
+    /** Registers a gauge whose current value is read from {@code value}. */
+    public MetricsRegistry gauge(String name, String help, DoubleSupplier value) {
+        checkName(name);
+        return register(writer -> writer.family(name, "gauge", help).sample(name, value.getAsDouble()));
+    }
+
+    public MetricsRegistry register(Collector collector) {
+        collectors.add(collector);
+        return this;
+    }
+
+    /** Returns the current value of every registered metric in the Prometheus text format. */
+    public String scrape() {
+        PrometheusWriter writer = new PrometheusWriter();
+        for (Collector collector : collectors) {
+            collector.collect(writer);
+        }
+        return writer.toString();
+    }
+
+    static void checkName(String name) {
+        Preconditions.checkArgument(NAME.matcher(name).matches(), "Invalid metric name: %s", name);
+    }
+}
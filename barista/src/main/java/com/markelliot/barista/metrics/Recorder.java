@@ -0,0 +1,52 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.metrics;
+
+/**
+ * Records values into a {@link Histogram} from any number of threads while a single reader
+ * periodically takes the values recorded since its previous read.
+ *
+ * <p>Recording is wait-free. Reading swaps the active histogram for an empty one, so readers never
+ * block writers and no recorded value is lost or counted twice.
+ */
+public final class Recorder {
+    private final WriterReaderPhaser phaser = new WriterReaderPhaser();
+    private volatile Histogram active = new Histogram();
+    private Histogram inactive = new Histogram();
+
+    public void record(long value) {
+        long epoch = phaser.enter();
+        try {
+            active.record(value);
+        } finally {
+            phaser.exit(epoch);
+        }
+    }
+
+    /**
+     * Returns the values recorded since the previous call. The returned histogram is reused, and so
+     * is only valid until the next call.
+     */
+    public synchronized Histogram interval() {
+        inactive.reset();
+        Histogram previous = active;
+        active = inactive;
+        phaser.flip();
+        inactive = previous;
+        return previous;
+    }
+}
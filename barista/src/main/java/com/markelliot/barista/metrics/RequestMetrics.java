@@ -0,0 +1,217 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.metrics;
+
+import com.markelliot.barista.handlers.RouteTable;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.AttachmentKey;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counts and latency histograms per endpoint and status class, and the number of requests
+ * in flight per endpoint.
+ *
+ * <p>Requests are attributed to the endpoint they were routed to by their {@link
+ * RouteTable#index(HttpServerExchange) route index}, so no additional matching is done per request. Requests that
+ * reach no endpoint, such as those rejected by earlier handlers or matching no route, are
+ * attributed to a single {@code unmatched} route. Requests in flight count towards {@code
+ * unmatched} until they are {@link #routed routed}.
+ *
+ * <p>Latencies are recorded into {@link Distribution}s, which also report the maximum latency seen since
+ * the previous scrape. The time requests spent waiting for a worker thread is recorded
+ * separately, since it is a direct measure of worker pool saturation.
+ */
+public final class RequestMetrics implements MetricsRegistry.Collector {
+    private static final String DURATION = "barista_http_request_duration_seconds";
+    private static final String MAX_DURATION = "barista_http_request_duration_max_seconds";
+    private static final String IN_FLIGHT = "barista_http_requests_in_flight";
+    private static final String QUEUE_WAIT = "barista_worker_queue_wait_seconds";
+    private static final String CPU = "barista_endpoint_cpu_seconds";
+    private static final String ALLOCATED = "barista_endpoint_allocated_bytes";
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+    private static final AttachmentKey<Route> IN_FLIGHT_ROUTE = AttachmentKey.create(Route.class);
+
+    // indexed by route index, with requests that reach no endpoint collected last
+    private final Route[] routes;
+    private final Route unmatched;
+    private final Distribution queueWait = Distribution.seconds();
+
+    private RequestMetrics(Route[] routes) {
+        this.routes = routes;
+        this.unmatched = routes[routes.length - 1];
+    }
+
+    public static RequestMetrics create(RouteTable table) {
+        Route[] routes = new Route[table.size() + 1];
+        for (RouteTable.Route route : table.routes()) {
+            routes[route.index()] =
+                    new Route(route.method().name(), route.template().template());
+        }
+        routes[table.size()] = new Route("*", "unmatched");
+        return new RequestMetrics(routes);
+    }
+
+    /** Notes the start of a request, which must be followed by a call to {@link #completed}. */
+    public void started(HttpServerExchange exchange) {
+        unmatched.inFlight.increment();
+        exchange.putAttachment(IN_FLIGHT_ROUTE, unmatched);
+    }
+
+    /** Counts a started request that is now routed towards its endpoint's requests in flight. */
+    public void routed(HttpServerExchange exchange) {
+        Route previous = exchange.getAttachment(IN_FLIGHT_ROUTE);
+        if (previous != null) {
+            Route route = route(exchange);
+            previous.inFlight.decrement();
+            route.inFlight.increment();
+            exchange.putAttachment(IN_FLIGHT_ROUTE, route);
+        }
+    }
+
+    /** Records that a request waited {@code nanos} for a worker thread. */
+    public void queued(long nanos) {
+        queueWait.record(nanos);
+    }
+
+    /** Records a completed request that took {@code nanos}. */
+    public void completed(HttpServerExchange exchange, long nanos) {
+        completed(exchange, nanos, -1, -1);
+    }
+
+    /**
+     * Records a completed request that took {@code nanos}, and whose endpoint used {@code cpuNanos}
+     * of CPU time and allocated {@code allocatedBytes}, each of which is -1 if unmeasured.
+     */
+    public void completed(HttpServerExchange exchange, long nanos, long cpuNanos, long allocatedBytes) {
+        Route started = exchange.removeAttachment(IN_FLIGHT_ROUTE);
+        if (started != null) {
+            started.inFlight.decrement();
+        }
+        Route route = route(exchange);
+        route.record(exchange.getStatusCode(), nanos);
+        if (cpuNanos >= 0) {
+            route.recordResources(cpuNanos, allocatedBytes);
+        }
+    }
+
+    /** Returns the number of requests that have started but not completed. */
+    public long inFlight() {
+        long inFlight = 0;
+        for (Route route : routes) {
+            inFlight += route.inFlight.sum();
+        }
+        return inFlight;
+    }
+
+    private Route route(HttpServerExchange exchange) {
+        int index = RouteTable.index(exchange);
+        return index < 0 ? unmatched : routes[index];
+    }
+
+    @Override
+    public synchronized void collect(PrometheusWriter writer) {
+        writer.family(IN_FLIGHT, "gauge", "Requests currently being handled.");
+        for (Route route : routes) {
+            writer.sample(IN_FLIGHT, route.inFlight.sum(), "method", route.method, "route", route.template);
+        }
+
+        writer.family(DURATION, "histogram", "Time from receiving a request to completing its response.");
+        for (Route route : routes) {
+            route.collectDurations(writer);
+        }
+        writer.family(MAX_DURATION, "gauge", "Maximum request duration since the previous scrape.");
+        for (Route route : routes) {
+            route.collectMaxDurations(writer);
+        }
+
+        writer.family(QUEUE_WAIT, "histogram", "Time requests waited for a worker thread.");
+        queueWait.collect(writer, QUEUE_WAIT);
+
+        writer.family(CPU, "histogram", "CPU time used by endpoint methods, if resource accounting is enabled.");
+        for (Route route : routes) {
+            route.collectResource(writer, CPU, route.cpu);
+        }
+        writer.family(
+                ALLOCATED, "histogram", "Bytes allocated by endpoint methods, if resource accounting is enabled.");
+        for (Route route : routes) {
+            route.collectResource(writer, ALLOCATED, route.allocated);
+        }
+    }
+
+    private static final class Route {
+        private final String method;
+        private final String template;
+        // indexed by status class, created on first use since most routes only see a few classes
+        private final AtomicReferenceArray<Distribution> timers = new AtomicReferenceArray<>(STATUS_CLASSES.length);
+        private final Distribution cpu = Distribution.seconds();
+        private final Distribution allocated = Distribution.bytes();
+        private final LongAdder inFlight = new LongAdder();
+        private volatile boolean resourcesRecorded = false;
+
+        Route(String method, String template) {
+            this.method = method;
+            this.template = template;
+        }
+
+        void record(int status, long nanos) {
+            int statusClass = Math.max(0, Math.min(STATUS_CLASSES.length - 1, status / 100 - 1));
+            Distribution timer = timers.get(statusClass);
+            if (timer == null) {
+                timers.compareAndSet(statusClass, null, Distribution.seconds());
+                timer = timers.get(statusClass);
+            }
+            timer.record(nanos);
+        }
+
+        void recordResources(long cpuNanos, long allocatedBytes) {
+            cpu.record(cpuNanos);
+            allocated.record(allocatedBytes);
+            if (!resourcesRecorded) {
+                resourcesRecorded = true;
+            }
+        }
+
+        void collectResource(PrometheusWriter writer, String name, Distribution distribution) {
+            if (resourcesRecorded) {
+                distribution.collect(writer, name, "method", method, "route", template);
+            }
+        }
+
+        void collectDurations(PrometheusWriter writer) {
+            for (int i = 0; i < STATUS_CLASSES.length; i++) {
+                Distribution timer = timers.get(i);
+                if (timer != null) {
+                    timer.collect(writer, DURATION, labels(i));
+                }
+            }
+        }
+
+        void collectMaxDurations(PrometheusWriter writer) {
+            for (int i = 0; i < STATUS_CLASSES.length; i++) {
+                Distribution timer = timers.get(i);
+                if (timer != null) {
+                    writer.sample(MAX_DURATION, timer.lastIntervalMax(), labels(i));
+                }
+            }
+        }
+
+        private String[] labels(int statusClass) {
+            return new String[] {"method", method, "route", template, "status", STATUS_CLASSES[statusClass]};
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.metrics;
+
+import io.undertow.Undertow;
+import io.undertow.server.ConnectorStatistics;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import org.xnio.management.XnioWorkerMXBean;
+
+/**
+ * Reports the state of an {@link Undertow} server's XNIO worker pool and the traffic on each of its
+ * listeners.
+ *
+ * <p>Listener statistics are only kept if the server was built with {@code
+ * UndertowOptions.ENABLE_STATISTICS}. Neither XNIO nor Undertow count accepted connections, so
+ * connection churn is reported only through the number of open connections.
+ */
+public final class WorkerMetrics implements MetricsRegistry.Collector {
+    private final XnioWorkerMXBean worker;
+    private final List<Undertow.ListenerInfo> listeners;
+
+    /** Creates metrics for {@code undertow}, which must have been started. */
+    public WorkerMetrics(Undertow undertow) {
+        this.worker = undertow.getWorker().getMXBean();
+        this.listeners = List.copyOf(undertow.getListenerInfo());
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        gauge(writer, "barista_worker_threads", "Threads in the worker pool.", worker.getWorkerPoolSize());
+        gauge(
+                writer,
+                "barista_worker_threads_max",
+                "Maximum threads in the worker pool.",
+                worker.getMaxWorkerPoolSize());
+        gauge(
+                writer,
+                "barista_worker_threads_busy",
+                "Worker threads running a task.",
+                worker.getBusyWorkerThreadCount());
+        gauge(writer, "barista_worker_queue_size", "Tasks waiting for a worker thread.", worker.getWorkerQueueSize());
+        gauge(writer, "barista_io_threads", "IO threads.", worker.getIoThreadCount());
+
+        listener(
+                writer,
+                "barista_listener_connections_open",
+                "gauge",
+                "Open connections.",
+                ConnectorStatistics::getActiveConnections);
+        listener(
+                writer,
+                "barista_listener_connections_max",
+                "gauge",
+                "Most connections open at once.",
+                ConnectorStatistics::getMaxActiveConnections);
+        listener(
+                writer,
+                "barista_listener_requests_total",
+                "counter",
+                "Requests received.",
+                ConnectorStatistics::getRequestCount);
+        listener(
+                writer,
+                "barista_listener_errors_total",
+                "counter",
+                "Requests that failed with a 500 status.",
+                ConnectorStatistics::getErrorCount);
+        listener(
+                writer,
+                "barista_listener_received_bytes_total",
+                "counter",
+                "Bytes received.",
+                ConnectorStatistics::getBytesReceived);
+        listener(
+                writer,
+                "barista_listener_sent_bytes_total",
+                "counter",
+                "Bytes sent.",
+                ConnectorStatistics::getBytesSent);
+    }
+
+    private static void gauge(PrometheusWriter writer, String name, String help, long value) {
+        writer.family(name, "gauge", help).sample(name, value);
+    }
+
+    private void listener(
+            PrometheusWriter writer, String name, String type, String help, ToLongFunction<ConnectorStatistics> value) {
+        writer.family(name, type, help);
+        for (Undertow.ListenerInfo listener : listeners) {
+            ConnectorStatistics statistics = listener.getConnectorStatistics();
+            if (statistics != null) {
+                writer.sample(
+                        name,
+                        value.applyAsLong(statistics),
+                        "listener",
+                        listener.getProtcol() + " " + listener.getAddress());
+            }
+        }
+    }
+}
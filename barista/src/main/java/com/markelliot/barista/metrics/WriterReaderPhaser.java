@@ -0,0 +1,52 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets many wait-free writers and a single reader hand off a data structure, after the phaser of
+ * the same name in HdrHistogram.
+ *
+ * <p>Writers bracket each update with {@link #enter()} and {@link #exit(long)}. The reader swaps in
+ * a fresh structure and then calls {@link #flip()}, which returns only once every writer that might
+ * have seen the previous structure has exited, after which the reader owns it exclusively.
+ */
+final class WriterReaderPhaser {
+    private final AtomicLong startEpoch = new AtomicLong(0);
+    private final AtomicLong evenEndEpoch = new AtomicLong(0);
+    private final AtomicLong oddEndEpoch = new AtomicLong(Long.MIN_VALUE);
+
+    long enter() {
+        return startEpoch.getAndIncrement();
+    }
+
+    void exit(long enteredAt) {
+        (enteredAt < 0 ? oddEndEpoch : evenEndEpoch).getAndIncrement();
+    }
+
+    synchronized void flip() {
+        boolean nextPhaseIsEven = startEpoch.get() < 0;
+        long initialValue = nextPhaseIsEven ? 0 : Long.MIN_VALUE;
+        (nextPhaseIsEven ? evenEndEpoch : oddEndEpoch).set(initialValue);
+        long startValueAtFlip = startEpoch.getAndSet(initialValue);
+        AtomicLong previousEndEpoch = nextPhaseIsEven ? oddEndEpoch : evenEndEpoch;
+        while (previousEndEpoch.get() != startValueAtFlip) {
+            Thread.yield();
+        }
+    }
+}
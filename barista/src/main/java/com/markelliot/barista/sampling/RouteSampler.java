@@ -0,0 +1,168 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.sampling;
+
+import com.google.common.base.Preconditions;
+import com.markelliot.barista.HttpMethod;
+import com.markelliot.barista.handlers.RouteTable;
+import io.undertow.server.HttpServerExchange;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples new traces according to the endpoint a request is routed to.
+ *
+ * <p>Each endpoint is sampled with its own probability (or the default rate), subject to an
+ * optional global cap on sampled traces per second. Endpoints may additionally be guaranteed one
+ * sampled trace per interval, so that low-volume endpoints remain visible when the cap is
+ * saturated by busier ones; these guaranteed samples are not subject to the cap. Requests that
+ * match no endpoint are treated as a single endpoint sampled at the default rate.
+ *
+ * <p>Requests are sampled after routing: each endpoint's state is found by its {@link
+ * RouteTable#index(HttpServerExchange) route index} rather than by matching the request's path.
+ */
+public final class RouteSampler implements Sampler {
+    private final RouteState[] routes;
+    private final RouteState unmatched;
+    private final Optional<TokenBucket> limiter;
+    private final long minimumIntervalNanos;
+
+    private RouteSampler(
+            RouteState[] routes, RouteState unmatched, Optional<TokenBucket> limiter, long minimumIntervalNanos) {
+        this.routes = routes;
+        this.unmatched = unmatched;
+        this.limiter = limiter;
+        this.minimumIntervalNanos = minimumIntervalNanos;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean sample(HttpServerExchange exchange) {
+        RouteState route = route(exchange);
+        long now = System.nanoTime();
+        if (minimumIntervalNanos > 0 && route.claimMinimum(now, minimumIntervalNanos)) {
+            return true;
+        }
+        if (ThreadLocalRandom.current().nextDouble() >= route.rate
+                || (limiter.isPresent() && !limiter.get().tryAcquire(now))) {
+            return false;
+        }
+        route.lastSampled.set(now);
+        return true;
+    }
+
+    private RouteState route(HttpServerExchange exchange) {
+        int index = RouteTable.index(exchange);
+        return index < 0 ? unmatched : routes[index];
+    }
+
+    private static final class RouteState {
+        private final double rate;
+        private final AtomicLong lastSampled;
+
+        RouteState(double rate, long lastSampled) {
+            this.rate = rate;
+            this.lastSampled = new AtomicLong(lastSampled);
+        }
+
+        /** Returns true if this call claimed the route's guaranteed sample for the current interval. */
+        boolean claimMinimum(long now, long intervalNanos) {
+            long last = lastSampled.get();
+            return now - last >= intervalNanos && lastSampled.compareAndSet(last, now);
+        }
+    }
+
+    public static final class Builder {
+        private double defaultRate = 0.2;
+        private final Map<RouteKey, Double> routeRates = new LinkedHashMap<>();
+        private Optional<Double> maxTracesPerSecond = Optional.empty();
+        private Duration minimumInterval = Duration.ZERO;
+
+        private Builder() {}
+
+        /** Sets the probability of sampling requests to endpoints without a rate of their own. */
+        public Builder defaultRate(double rate) {
+            this.defaultRate = checkRate(rate);
+            return this;
+        }
+
+        /** Sets the probability of sampling requests to the endpoint at {@code method} {@code route}. */
+        public Builder rate(HttpMethod method, String route, double rate) {
+            routeRates.put(new RouteKey(method, route), checkRate(rate));
+            return this;
+        }
+
+        /** Caps the number of traces sampled per second across all endpoints. */
+        public Builder maxTracesPerSecond(double traces) {
+            Preconditions.checkArgument(traces > 0, "Maximum traces per second must be positive");
+            this.maxTracesPerSecond = Optional.of(traces);
+            return this;
+        }
+
+        /**
+         * Guarantees that each endpoint samples at least one trace per {@code interval}, regardless
+         * of its rate or the global cap.
+         */
+        public Builder minimumInterval(Duration interval) {
+            Preconditions.checkArgument(!interval.isNegative(), "Minimum interval must be non-negative");
+            this.minimumInterval = interval;
+            return this;
+        }
+
+        public RouteSampler build(RouteTable routeTable) {
+            long now = System.nanoTime();
+            long minimumIntervalNanos = minimumInterval.toNanos();
+            // start every route due for its guaranteed sample
+            long lastSampled = now - minimumIntervalNanos;
+
+            Map<RouteKey, Double> unusedRates = new LinkedHashMap<>(routeRates);
+            RouteState[] routes = new RouteState[routeTable.size()];
+            for (RouteTable.Route route : routeTable.routes()) {
+                Double rate = unusedRates.remove(
+                        new RouteKey(route.method(), route.endpoint().route()));
+                routes[route.index()] = new RouteState(rate == null ? defaultRate : rate, lastSampled);
+            }
+            Preconditions.checkArgument(
+                    unusedRates.isEmpty(), "Sampling rates configured for unknown endpoints: %s", unusedRates.keySet());
+
+            return new RouteSampler(
+                    routes,
+                    new RouteState(defaultRate, lastSampled),
+                    maxTracesPerSecond.map(traces -> new TokenBucket(traces, now)),
+                    minimumIntervalNanos);
+        }
+
+        private static double checkRate(double rate) {
+            Preconditions.checkArgument(0.0 <= rate && rate <= 1.0, "Cannot set a rate outside of range [0, 1]");
+            return rate;
+        }
+    }
+
+    private record RouteKey(HttpMethod method, String route) {
+        @Override
+        public String toString() {
+            return method + " " + route;
+        }
+    }
+}
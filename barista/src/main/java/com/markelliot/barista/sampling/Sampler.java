@@ -0,0 +1,30 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.sampling;
+
+import io.undertow.server.HttpServerExchange;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Decides whether to sample a new trace for a request that didn't arrive with one. */
+public interface Sampler {
+    boolean sample(HttpServerExchange exchange);
+
+    /** Returns a sampler that samples each request with probability {@code rate}. */
+    static Sampler rate(double rate) {
+        return exchange -> ThreadLocalRandom.current().nextDouble() < rate;
+    }
+}
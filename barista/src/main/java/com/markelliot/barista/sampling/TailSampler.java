@@ -0,0 +1,138 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.sampling;
+
+import com.markelliot.barista.RequestTimings;
+import com.markelliot.barista.tracing.CompletedSpan;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Decides which traces to export after requests complete rather than before they start.
+ *
+ * <p>In tail sampling mode every request is traced, and each in-flight request holds a {@link
+ * Buffer} of the spans finished in its trace, whichever thread finishes them. When the request
+ * completes, its spans and timings are exported if the request was sampled up front, failed with a
+ * 5xx status or took at least the latency threshold; otherwise they are discarded. Spans of traces
+ * with no request in flight, such as those of work that outlives its request, are dropped and
+ * counted by {@link #droppedSpans()}.
+ *
+ * <p>If several requests of the same trace are in flight at once, spans go to the most recently
+ * started of them.
+ */
+public final class TailSampler {
+    private static final CompletedSpan[] EMPTY = new CompletedSpan[0];
+
+    private final long latencyThresholdNanos;
+    private final Consumer<CompletedSpan> spanExporter;
+    private final Consumer<RequestTimings> timingsExporter;
+    private final Map<String, Buffer> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder exported = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Creates a tail sampler that passes the spans and timings of kept requests to {@code
+     * spanExporter} and {@code timingsExporter}.
+     *
+     * @param latencyThreshold requests that take at least this long are kept
+     */
+    public TailSampler(
+            Duration latencyThreshold, Consumer<CompletedSpan> spanExporter, Consumer<RequestTimings> timingsExporter) {
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.spanExporter = spanExporter;
+        this.timingsExporter = timingsExporter;
+    }
+
+    /** Receives finished spans; register this method with the tracing library. */
+    public void accept(CompletedSpan span) {
+        Buffer buffer = inFlight.get(span.traceId());
+        if (buffer != null) {
+            buffer.add(span);
+        } else {
+            dropped.increment();
+        }
+    }
+
+    /** Returns a buffer for the spans of trace {@code traceId}, for a request that starts now. */
+    public Buffer start(String traceId, boolean headSampled) {
+        Buffer buffer = new Buffer(traceId, headSampled, System.nanoTime());
+        inFlight.put(traceId, buffer);
+        return buffer;
+    }
+
+    /** Returns the number of completed requests whose spans were exported. */
+    public long exportedTraces() {
+        return exported.sum();
+    }
+
+    /** Returns the number of completed requests whose spans were discarded. */
+    public long discardedTraces() {
+        return discarded.sum();
+    }
+
+    /** Returns the number of spans dropped because no request of their trace was in flight. */
+    public long droppedSpans() {
+        return dropped.sum();
+    }
+
+    /** The spans of a single request. */
+    public final class Buffer {
+        private final String traceId;
+        private final boolean headSampled;
+        private final long startNanos;
+        private CompletedSpan[] spans = EMPTY;
+        private int size = 0;
+
+        private Buffer(String traceId, boolean headSampled, long startNanos) {
+            this.traceId = traceId;
+            this.headSampled = headSampled;
+            this.startNanos = startNanos;
+        }
+
+        private synchronized void add(CompletedSpan span) {
+            if (size == spans.length) {
+                spans = Arrays.copyOf(spans, Math.max(4, size * 2));
+            }
+            spans[size++] = span;
+        }
+
+        /**
+         * Exports or discards this request's spans and {@code timings} according to its outcome.
+         * Spans of the trace that finish later are dropped.
+         */
+        public synchronized void complete(int statusCode, RequestTimings timings) {
+            inFlight.remove(traceId, this);
+            boolean keep = headSampled || statusCode >= 500 || System.nanoTime() - startNanos >= latencyThresholdNanos;
+            if (keep) {
+                for (int i = 0; i < size; i++) {
+                    spanExporter.accept(spans[i]);
+                }
+                timingsExporter.accept(timings);
+                exported.increment();
+            } else {
+                discarded.increment();
+            }
+            spans = EMPTY;
+            size = 0;
+        }
+    }
+}
@@ -23,40 +23,49 @@ package com.markelliot.barista.tls;
  * src/main/java/com/palantir/conjure/java/config/ssl/DefaultCas.java
  */
 
-import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMap;
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.function.Supplier;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 final class DefaultCas {
     /**
-     * This should be updated by running `./gradlew regenerateCAs` whenever the Java version we use
-     * to compile changes, to ensure we pick up new CAs or revoke insecure ones.
+     * The file in a security directory that holds the default CA certificates. This should be
+     * updated by running `./gradlew regenerateCAs` whenever the Java version we use to compile
+     * changes, to ensure we pick up new CAs or revoke insecure ones.
      */
-    private static final File CA_PEM_FILE = new File("var/security", "cas.pem");
+    private static final String CA_PEM_FILE = "cas.pem";
 
-    private static final Supplier<Map<String, X509Certificate>> TRUSTED_CERTIFICATES =
-            Suppliers.memoize(DefaultCas::getTrustedCertificates);
+    private static final Map<Path, Map<String, X509Certificate>> trustedCertificates = new ConcurrentHashMap<>();
 
-    static Map<String, X509Certificate> getCertificates() {
-        return TRUSTED_CERTIFICATES.get();
+    static Map<String, X509Certificate> getCertificates(Path securityDir) {
+        return trustedCertificates.computeIfAbsent(caFile(securityDir), DefaultCas::getTrustedCertificates);
     }
 
-    private static Map<String, X509Certificate> getTrustedCertificates() {
+    /** Returns the file the default CA certificates of {@code securityDir} are read from. */
+    static Path caFile(Path securityDir) {
+        return securityDir.resolve(CA_PEM_FILE);
+    }
+
+    /** Discards the memoized certificates so that the next read picks up changes to the CA file. */
+    static void invalidate() {
+        trustedCertificates.clear();
+    }
+
+    private static Map<String, X509Certificate> getTrustedCertificates(Path caFile) {
         ImmutableMap.Builder<String, X509Certificate> certificateMap = ImmutableMap.builder();
-        try {
-            List<X509Certificate> caCertificates =
-                    TransportLayerSecurity.readX509Certificates(new FileInputStream(CA_PEM_FILE)).stream()
-                            .map(cert -> (X509Certificate) cert)
-                            .collect(Collectors.toList());
+        try (InputStream in = Files.newInputStream(caFile)) {
+            List<X509Certificate> caCertificates = TransportLayerSecurity.readX509Certificates(in).stream()
+                    .map(cert -> (X509Certificate) cert)
+                    .collect(Collectors.toList());
             for (X509Certificate cert : caCertificates) {
                 String certificateCommonName =
                         cert.getSubjectX500Principal().getName().toLowerCase(Locale.ENGLISH);
@@ -0,0 +1,122 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.tls;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Minimal reader for the subset of <a href="https://en.wikipedia.org/wiki/X.690">DER</a> needed
+ * to read PKCS#1, PKCS#8 and SEC1 private keys.
+ *
+ * <p>Values are read in order; constructed values (SEQUENCE and context-specific tags) are entered
+ * by reading their header with {@link #enter(byte)} and then reading their contents.
+ */
+final class DerReader {
+    static final byte INTEGER = 0x02;
+    static final byte OCTET_STRING = 0x04;
+    static final byte OBJECT_IDENTIFIER = 0x06;
+    static final byte SEQUENCE = 0x30;
+
+    private final ByteBuffer derBytes;
+
+    DerReader(byte[] derBytes) {
+        this.derBytes = ByteBuffer.wrap(derBytes);
+    }
+
+    /** Returns true if there are more values and the next value has the provided tag. */
+    boolean next(byte tag) {
+        return derBytes.hasRemaining() && derBytes.get(derBytes.position()) == tag;
+    }
+
+    /** Reads the header of a constructed value, leaving the reader positioned at its contents. */
+    int enter(byte tag) {
+        expect(tag);
+        return readLength();
+    }
+
+    BigInteger readInteger() {
+        return new BigInteger(readBytes(INTEGER));
+    }
+
+    byte[] readOctetString() {
+        return readBytes(OCTET_STRING);
+    }
+
+    /** Reads an OBJECT IDENTIFIER and returns it in dotted-decimal form, e.g. {@code 1.2.840.10045.2.1}. */
+    String readObjectIdentifier() {
+        byte[] bytes = readBytes(OBJECT_IDENTIFIER);
+        if (bytes.length == 0) {
+            throw new RuntimeException("Unable to decode empty OBJECT IDENTIFIER");
+        }
+
+        StringBuilder oid = new StringBuilder();
+        int first = bytes[0] & 0xff;
+        oid.append(Math.min(first / 40, 2)).append('.').append(first - Math.min(first / 40, 2) * 40);
+        long arc = 0;
+        for (int i = 1; i < bytes.length; i++) {
+            arc = (arc << 7) | (bytes[i] & 0x7f);
+            if ((bytes[i] & 0x80) == 0) {
+                oid.append('.').append(arc);
+                arc = 0;
+            }
+        }
+        return oid.toString();
+    }
+
+    /** Skips the next value, whatever its tag. */
+    void skip() {
+        derBytes.get();
+        int length = readLength();
+        derBytes.position(derBytes.position() + length);
+    }
+
+    private byte[] readBytes(byte tag) {
+        expect(tag);
+        int length = readLength();
+        byte[] bytes = new byte[length];
+        derBytes.get(bytes);
+        return bytes;
+    }
+
+    private void expect(byte tag) {
+        byte actual = derBytes.get();
+        if (actual != tag) {
+            throw new RuntimeException(String.format("Expected tag 0x%02x but found 0x%02x", tag, actual));
+        }
+    }
+
+    private int readLength() {
+        byte lengthByte = derBytes.get();
+        if ((lengthByte & 0x80) == 0x00) { // short form, 1 byte length
+            return lengthByte;
+        } else if ((lengthByte & 0x7f) == 0x00) { // indefinite length encoding
+            throw new RuntimeException("Indefinite length encoding is not supported");
+        } else { // long form encoding
+            int lengthOctets = lengthByte & 0x7f;
+            if (lengthOctets > 4) {
+                throw new RuntimeException("Values bigger than 4GBs are not supported");
+            }
+            int length = 0;
+            for (int i = 0; i < lengthOctets; i++) {
+                length <<= 8;
+                length += derBytes.get() & 0xff;
+            }
+            return length;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.tls;
+
+import com.google.common.base.Suppliers;
+import java.net.Socket;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.function.Supplier;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedTrustManager;
+
+/**
+ * An {@link X509ExtendedTrustManager} that builds its delegate on first use.
+ *
+ * <p>Servers only consult their trust manager to verify client certificates, so a server that
+ * doesn't request them never pays to parse its trust material. If building the delegate fails, no
+ * issuers are accepted, the peer is rejected with a {@link CertificateException}, and the next
+ * verification tries again.
+ */
+final class LazyTrustManager extends X509ExtendedTrustManager {
+    private final Supplier<X509ExtendedTrustManager> delegate;
+
+    LazyTrustManager(Supplier<X509ExtendedTrustManager> factory) {
+        this.delegate = Suppliers.memoize(factory::get);
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException {
+        delegate().checkClientTrusted(chain, authType, socket);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException {
+        delegate().checkServerTrusted(chain, authType, socket);
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException {
+        delegate().checkClientTrusted(chain, authType, engine);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException {
+        delegate().checkServerTrusted(chain, authType, engine);
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        delegate().checkClientTrusted(chain, authType);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        delegate().checkServerTrusted(chain, authType);
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        try {
+            return delegate.get().getAcceptedIssuers();
+        } catch (RuntimeException e) {
+            // advertise no issuers; the following check rejects the peer
+            return new X509Certificate[0];
+        }
+    }
+
+    private X509ExtendedTrustManager delegate() throws CertificateException {
+        try {
+            return delegate.get();
+        } catch (RuntimeException e) {
+            throw new CertificateException("Unable to load trust material", e);
+        }
+    }
+}
@@ -24,12 +24,11 @@ package com.markelliot.barista.tls;
  */
 
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
 import java.security.spec.RSAPrivateCrtKeySpec;
 import java.security.spec.RSAPrivateKeySpec;
 
 /**
- * Minimal DER parser that can handle ASN.1 (PKCS#1) private key's based on <a
+ * Reader for ASN.1 (PKCS#1) private keys based on <a
  * href="https://tools.ietf.org/html/rfc8017">RFC 8017, appendix C</a>.
  *
  * <p>Handles private key in following format ignoring otherPrimeinfos, i.e. validates that version
@@ -63,44 +62,30 @@ import java.security.spec.RSAPrivateKeySpec;
  * }
  * </pre>
  *
- * <p>see <a href="https://en.wikipedia.org/wiki/X.690">DER</a> format specification for explanation
- * behind length parsing and tag values. ASN.1 uses CONSTRUCTED form of SEQUENCE tag hence the value
- * is 48 instead of 16.
+ * <p>DER values are decoded with {@link DerReader}.
  */
 public final class Pkcs1PrivateKeyReader {
-    /** Tag value indicating an ASN.1 "INTEGER" value. */
-    private static final byte INTEGER = 0x02;
-
-    /** Tag value indicating an ASN.1 "SEQUENCE" (zero to N elements, order is significant). */
-    private static final byte SEQUENCE = 0x30;
-
-    private final ByteBuffer derBytes;
+    private final DerReader der;
 
     public Pkcs1PrivateKeyReader(byte[] derBytes) {
-        this.derBytes = ByteBuffer.wrap(derBytes);
+        this.der = new DerReader(derBytes);
     }
 
     public RSAPrivateKeySpec readRsaKey() {
-        byte tag = derBytes.get();
-        if (tag != SEQUENCE) {
-            throw new RuntimeException("Expected SEQUENCE byte (0x30) at the beginning of RSA private key");
-        }
-        int length = readLength();
-        // cap the read length
-        derBytes.limit(derBytes.position() + length);
-        BigInteger version = readNumber();
+        der.enter(DerReader.SEQUENCE);
+        BigInteger version = der.readInteger();
         if (version.intValue() == 1) {
             throw new RuntimeException("Only version 0 (two-prime) RSA keys are supported");
         }
 
-        BigInteger modulus = readNumber();
-        BigInteger publicExponent = readNumber();
-        BigInteger privateExponent = readNumber();
-        BigInteger primeP = readNumber();
-        BigInteger primeQ = readNumber();
-        BigInteger primeExponentP = readNumber();
-        BigInteger primeExponentQ = readNumber();
-        BigInteger crtCoefficient = readNumber();
+        BigInteger modulus = der.readInteger();
+        BigInteger publicExponent = der.readInteger();
+        BigInteger privateExponent = der.readInteger();
+        BigInteger primeP = der.readInteger();
+        BigInteger primeQ = der.readInteger();
+        BigInteger primeExponentP = der.readInteger();
+        BigInteger primeExponentQ = der.readInteger();
+        BigInteger crtCoefficient = der.readInteger();
         if (publicExponent.signum() == 0
                 || primeExponentP.signum() == 0
                 || primeExponentQ.signum() == 0
@@ -120,44 +105,4 @@ public final class Pkcs1PrivateKeyReader {
                     crtCoefficient);
         }
     }
-
-    private BigInteger readNumber() {
-        byte tag = derBytes.get();
-        if (tag != INTEGER) {
-            throw new RuntimeException("Expected INTEGER byte (0x02) when reading a number");
-        }
-        int length = readLength();
-        byte[] numberBytes = new byte[length];
-        System.arraycopy(derBytes.array(), derBytes.position(), numberBytes, 0, length);
-
-        // move position in the buffer since arraycopy doesn't do it
-        derBytes.position(derBytes.position() + length);
-        return new BigInteger(numberBytes);
-    }
-
-    private int readLength() {
-        byte lengthByte = derBytes.get();
-        if (lengthByte == -1) {
-            throw new RuntimeException("Unable to decode length from der bytes");
-        }
-
-        if ((lengthByte & 0x080) == 0x00) { // short form, 1 byte length
-            return lengthByte;
-        } else if ((lengthByte & 0x07f) == 0x00) { // indefinite length encoding
-            throw new RuntimeException("Indefinite length encoding is not supported");
-        } else { // long form encoding
-            int lengthOctets = lengthByte & 0x7f;
-            // cap at 4 bytes for length value, 4GB of data.
-            if (lengthOctets > 4) {
-                throw new RuntimeException("Values bigger than 4GBs are not supported");
-            }
-            int length = 0;
-            for (int i = 0; i < lengthOctets; i++) {
-                length <<= 8;
-                length += derBytes.get() & 0x0ff;
-            }
-
-            return length;
-        }
-    }
 }
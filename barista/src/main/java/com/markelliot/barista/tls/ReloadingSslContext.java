@@ -0,0 +1,173 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.tls;
+
+import com.markelliot.barista.tls.TransportLayerSecurity.TrustLoading;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedKeyManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link SSLContext} whose key and trust material is re-read from a security directory whenever
+ * files in that directory change.
+ *
+ * <p>Reloads swap key and trust material atomically for new handshakes; established connections
+ * continue to use the material they negotiated with. If reloading fails (for instance, because a
+ * certificate rotation is only partially written), the existing material is retained and the next
+ * change to the directory triggers another attempt.
+ */
+public final class ReloadingSslContext implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(ReloadingSslContext.class);
+
+    /** Time to wait after the most recent change before reloading, to coalesce multi-file updates. */
+    private static final Duration QUIET_PERIOD = Duration.ofSeconds(2);
+
+    private final Path securityDir;
+    private final ReloadingKeyManager keyManager;
+    private final ReloadingTrustManager trustManager;
+    private final SSLContext context;
+    private final WatchService watchService;
+    private final Thread watcher;
+
+    private ReloadingSslContext(Path securityDir, TrustLoading loading, WatchService watchService) {
+        this.securityDir = securityDir;
+        this.keyManager = new ReloadingKeyManager(TransportLayerSecurity.createKeyManager(securityDir));
+        this.trustManager = new ReloadingTrustManager(TransportLayerSecurity.createTrustManager(securityDir, loading));
+        this.context = TransportLayerSecurity.createSslContext(
+                new TrustManager[] {trustManager}, new KeyManager[] {keyManager});
+        this.watchService = watchService;
+        this.watcher = new Thread(this::watch, "barista-tls-reloader");
+        this.watcher.setDaemon(true);
+    }
+
+    static ReloadingSslContext watch(Path securityDir, TrustLoading loading) {
+        WatchService watchService;
+        try {
+            watchService = securityDir.getFileSystem().newWatchService();
+            securityDir.register(
+                    watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Unable to watch security directory '%s'", securityDir), e);
+        }
+        ReloadingSslContext context = new ReloadingSslContext(securityDir, loading, watchService);
+        context.watcher.start();
+        return context;
+    }
+
+    public SSLContext context() {
+        return context;
+    }
+
+    /**
+     * Re-reads key and trust material from the security directory, returning true if the new
+     * material was installed and false if the existing material was retained.
+     */
+    public boolean reload() {
+        X509ExtendedKeyManager newKeyManager;
+        X509ExtendedTrustManager newTrustManager;
+        try {
+            DefaultCas.invalidate();
+            newKeyManager = TransportLayerSecurity.createKeyManager(securityDir);
+            newTrustManager = TransportLayerSecurity.createTrustManager(securityDir);
+        } catch (RuntimeException e) {
+            log.warn("Unable to reload TLS material from '{}', retaining existing material", securityDir, e);
+            return false;
+        }
+        keyManager.set(newKeyManager);
+        trustManager.set(newTrustManager);
+        log.info("Reloaded TLS material from '{}'", securityDir);
+        return true;
+    }
+
+    /** A source of changes to the security directory. */
+    @FunctionalInterface
+    interface Changes {
+        /**
+         * Blocks until the directory changes, returning true, or until {@code timeout} elapses if one
+         * is given, returning false. Throws {@link InterruptedException} once no further changes will
+         * be reported.
+         */
+        boolean await(Optional<Duration> timeout) throws InterruptedException;
+    }
+
+    /**
+     * Calls {@code reload} once {@code quietPeriod} passes without changes after one or more
+     * changes, so that a burst of writes results in a single reload. Returns once {@code changes}
+     * stops reporting changes.
+     */
+    static void coalesce(Changes changes, Duration quietPeriod, Runnable reload) {
+        boolean pending = false;
+        while (true) {
+            try {
+                if (changes.await(pending ? Optional.of(quietPeriod) : Optional.empty())) {
+                    pending = true;
+                } else {
+                    pending = false;
+                    reload.run();
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void watch() {
+        try {
+            coalesce(this::awaitChange, QUIET_PERIOD, this::reload);
+        } catch (ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private boolean awaitChange(Optional<Duration> timeout) throws InterruptedException {
+        WatchKey key = timeout.isPresent()
+                ? watchService.poll(timeout.get().toMillis(), TimeUnit.MILLISECONDS)
+                : watchService.take();
+        if (key == null) {
+            return false;
+        }
+        key.pollEvents();
+        if (!key.reset()) {
+            log.warn("Security directory '{}' is no longer accessible, no longer watching for changes", securityDir);
+            throw new InterruptedException();
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        watcher.interrupt();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.tls;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPrivateKeySpec;
+
+/**
+ * Minimal DER parser for SEC1 ("BEGIN EC PRIVATE KEY") elliptic curve private keys based on <a
+ * href="https://tools.ietf.org/html/rfc5915">RFC 5915</a>.
+ *
+ * <pre>
+ * ECPrivateKey ::= SEQUENCE {
+ *     version        INTEGER { ecPrivkeyVer1(1) },
+ *     privateKey     OCTET STRING,
+ *     parameters [0] ECParameters {{ NamedCurve }} OPTIONAL,
+ *     publicKey  [1] BIT STRING OPTIONAL
+ * }
+ * </pre>
+ *
+ * <p>Only named curves are supported, and because a SEC1 key carries its curve in the optional
+ * {@code parameters} field, keys without that field are rejected.
+ */
+final class Sec1PrivateKeyReader {
+    /** Tag value indicating the constructed, context-specific [0] "parameters" field. */
+    private static final byte PARAMETERS = (byte) 0xa0;
+
+    private final DerReader der;
+
+    Sec1PrivateKeyReader(byte[] derBytes) {
+        this.der = new DerReader(derBytes);
+    }
+
+    ECPrivateKeySpec readEcKey() throws GeneralSecurityException {
+        der.enter(DerReader.SEQUENCE);
+        BigInteger version = der.readInteger();
+        if (version.intValue() != 1) {
+            throw new GeneralSecurityException("Only version 1 SEC1 EC private keys are supported");
+        }
+        BigInteger privateValue = new BigInteger(1, der.readOctetString());
+        if (!der.next(PARAMETERS)) {
+            throw new GeneralSecurityException("SEC1 EC private key does not specify a named curve");
+        }
+        der.enter(PARAMETERS);
+        String curveOid = der.readObjectIdentifier();
+
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec(curveOid));
+        return new ECPrivateKeySpec(privateValue, parameters.getParameterSpec(ECParameterSpec.class));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.tls;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+
+/** Counts the TLS handshakes completed by engines of an instrumented {@link SSLContext}. */
+public final class TlsMetrics {
+    private static final String ESTABLISHED = TlsMetrics.class.getName() + ".established";
+    /** Matches the JVM's default session cache size. */
+    private static final int MAX_TRACKED_SESSION_IDS = 20_480;
+
+    private final Cache<ByteBuffer, Boolean> sessionIds =
+            Caffeine.newBuilder().maximumSize(MAX_TRACKED_SESSION_IDS).build();
+    private final LongAdder fullHandshakes = new LongAdder();
+    private final LongAdder resumedHandshakes = new LongAdder();
+
+    /** Returns the number of handshakes that negotiated a new session. */
+    public long fullHandshakes() {
+        return fullHandshakes.sum();
+    }
+
+    /** Returns the number of handshakes that resumed a previously negotiated session. */
+    public long resumedHandshakes() {
+        return resumedHandshakes.sum();
+    }
+
+    /**
+     * Returns an {@link SSLContext} that behaves like {@code context} and records handshakes
+     * completed by the engines it creates into this object.
+     */
+    public SSLContext instrument(SSLContext context) {
+        return new InstrumentedSslContext(context, this);
+    }
+
+    /**
+     * Records the handshake that established {@code session} on an engine created at {@code
+     * engineCreatedMillis}.
+     *
+     * <p>JSSE offers no direct signal for session resumption, so sessions are tracked instead.
+     * TLS 1.2 and earlier resumptions keep the id of the session they resume, including those
+     * resumed from stateless session tickets. TLS 1.3 resumptions get a new id: sessions resumed
+     * from the session cache are recognized by a value bound to the original session, which JSSE
+     * shares with the copies it derives from it, and sessions resumed from stateless tickets by the
+     * creation time of the original session, which predates the resuming engine by at least the
+     * round trip in which the client received its ticket.
+     */
+    void recordHandshake(SSLSession session, long engineCreatedMillis) {
+        boolean resumed;
+        if (session.getProtocol().equals("TLSv1.3")) {
+            resumed = session.getValue(ESTABLISHED) != null || session.getCreationTime() < engineCreatedMillis;
+            // bound only once established, so that the session's ticket may still be stateless
+            session.putValue(ESTABLISHED, Boolean.TRUE);
+        } else {
+            resumed = sessionIds.asMap().putIfAbsent(ByteBuffer.wrap(session.getId()), Boolean.TRUE) != null;
+        }
+        if (resumed) {
+            resumedHandshakes.increment();
+        } else {
+            fullHandshakes.increment();
+        }
+    }
+}
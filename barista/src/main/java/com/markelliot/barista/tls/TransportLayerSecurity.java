@@ -45,12 +45,14 @@ import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
-import java.security.spec.KeySpec;
+import java.security.spec.ECPrivateKeySpec;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.RSAPrivateKeySpec;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -60,17 +62,32 @@ import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedKeyManager;
+import javax.net.ssl.X509ExtendedTrustManager;
 
 public final class TransportLayerSecurity {
     private static final Cache<EqualByteArray, X509Certificate> certCache =
             Caffeine.newBuilder().maximumSize(1024).softValues().build();
 
     /**
-     * Pattern that matches a single RSA key in a PEM file. Has a capture group that captures the
-     * content of the key (everything that occurs between the header and footer).
+     * Pattern that matches a single PKCS#1 RSA, SEC1 EC or PKCS#8 key in a PEM file. Has a capture
+     * group that captures the content of the key (everything that occurs between the header and
+     * footer).
      */
     private static final Pattern KEY_PATTERN = Pattern.compile(
-            "-----BEGIN (RSA)? ?PRIVATE KEY-----\n?(.+?)\n?-----END (RSA)? ?PRIVATE KEY-----", Pattern.DOTALL);
+            "-----BEGIN (RSA|EC)? ?PRIVATE KEY-----\n?(.+?)\n?-----END (RSA|EC)? ?PRIVATE KEY-----", Pattern.DOTALL);
+
+    /** Algorithm names by the PKCS#8 AlgorithmIdentifier object identifiers that name them. */
+    private static final Map<String, String> PKCS8_KEY_ALGORITHMS = Map.of(
+            "1.2.840.113549.1.1.1", "RSA",
+            "1.2.840.113549.1.1.10", "RSASSA-PSS",
+            "1.2.840.10045.2.1", "EC");
+
+    /**
+     * Matches the key files in a security directory: {@code key.pem} and, for servers that offer
+     * several key types (e.g. both RSA and ECDSA), additional {@code key-<name>.pem} files.
+     */
+    private static final Pattern KEY_FILE_PATTERN = Pattern.compile("key(-.+)?\\.pem");
 
     /**
      * Pattern that matches a single certificate in a PEM file. Has a capture group that captures
@@ -81,13 +98,86 @@ public final class TransportLayerSecurity {
 
     private static final FileFilter VISIBLE_FILE_FILTER = pathname -> !pathname.isHidden();
 
+    /** When the trust material of a context is parsed. */
+    public enum TrustLoading {
+        /** Parses trust material when the context is created, so malformed files fail creation. */
+        EAGER,
+        /**
+         * Only checks that the trust files are readable when the context is created, and parses them
+         * the first time a peer certificate must be verified. Servers that don't request client
+         * certificates never parse them.
+         */
+        LAZY
+    }
+
+    /** Returns an {@link SSLContext} backed by the key and trust material in {@code securityDir}. */
     public static SSLContext createSslContext(Path securityDir) {
-        TrustManagerFactory trustManagerFactory = createTrustManagerFactory(securityDir.resolve("trust.pem"));
-        KeyManagerFactory keyManagerFactory = createKeyManagerFactory(securityDir.resolve("key.pem"));
-        return createSslContext(trustManagerFactory.getTrustManagers(), keyManagerFactory.getKeyManagers());
+        return createSslContext(securityDir, TrustLoading.EAGER);
+    }
+
+    /** As {@link #createSslContext(Path)}, but parses trust material as described by {@code loading}. */
+    public static SSLContext createSslContext(Path securityDir, TrustLoading loading) {
+        return createSslContext(
+                new TrustManager[] {createTrustManager(securityDir, loading)},
+                new KeyManager[] {createKeyManager(securityDir)});
+    }
+
+    /**
+     * Returns an {@link SSLContext} backed by the key and trust material in {@code securityDir} that
+     * reloads that material whenever the contents of the directory change.
+     *
+     * <p>Callers should close the returned object to stop watching the directory.
+     */
+    public static ReloadingSslContext createReloadingSslContext(Path securityDir) {
+        return createReloadingSslContext(securityDir, TrustLoading.EAGER);
+    }
+
+    /**
+     * As {@link #createReloadingSslContext(Path)}, but parses the initial trust material as
+     * described by {@code loading}. Reloaded trust material is always parsed eagerly.
+     */
+    public static ReloadingSslContext createReloadingSslContext(Path securityDir, TrustLoading loading) {
+        return ReloadingSslContext.watch(securityDir, loading);
+    }
+
+    static X509ExtendedKeyManager createKeyManager(Path securityDir) {
+        return firstOfType(createKeyManagerFactory(securityDir).getKeyManagers(), X509ExtendedKeyManager.class);
+    }
+
+    static X509ExtendedTrustManager createTrustManager(Path securityDir) {
+        return firstOfType(createTrustManagerFactory(securityDir).getTrustManagers(), X509ExtendedTrustManager.class);
+    }
+
+    static X509ExtendedTrustManager createTrustManager(Path securityDir, TrustLoading loading) {
+        return switch (loading) {
+            case EAGER -> createTrustManager(securityDir);
+            case LAZY -> {
+                // fail on missing files now rather than on the first verification
+                checkReadable(getFilesForPath(securityDir.resolve("trust.pem")));
+                checkReadable(new File[] {DefaultCas.caFile(securityDir).toFile()});
+                yield new LazyTrustManager(() -> createTrustManager(securityDir));
+            }
+        };
+    }
+
+    private static void checkReadable(File[] files) {
+        for (File file : files) {
+            if (!Files.isReadable(file.toPath())) {
+                throw new IllegalStateException(String.format("Unable to read trust material at '%s'", file));
+            }
+        }
+    }
+
+    private static <T> T firstOfType(Object[] managers, Class<T> type) {
+        for (Object manager : managers) {
+            if (type.isInstance(manager)) {
+                return type.cast(manager);
+            }
+        }
+        throw new IllegalStateException("No manager of type " + type.getSimpleName() + " available");
     }
 
-    private static SSLContext createSslContext(TrustManager[] trustManagers, KeyManager[] keyManagers) {
+    static SSLContext createSslContext(TrustManager[] trustManagers, KeyManager[] keyManagers) {
         try {
             SSLContext sslContext = SSLContext.getInstance("TLS");
             sslContext.init(keyManagers, trustManagers, null);
@@ -97,17 +187,8 @@ public final class TransportLayerSecurity {
         }
     }
 
-    private static TrustManagerFactory createTrustManagerFactory(Path trustStorePath) {
-        KeyStore keyStore = createTrustStoreFromCertificates(trustStorePath);
-
-        // Add globally trusted root CAs
-        DefaultCas.getCertificates().forEach((certAlias, cert) -> {
-            try {
-                keyStore.setCertificateEntry(certAlias, cert);
-            } catch (KeyStoreException e) {
-                throw new RuntimeException("Unable to add certificate to store", e);
-            }
-        });
+    private static TrustManagerFactory createTrustManagerFactory(Path securityDir) {
+        KeyStore keyStore = createTrustStore(securityDir);
 
         try {
             TrustManagerFactory trustManagerFactory =
@@ -119,12 +200,33 @@ public final class TransportLayerSecurity {
         }
     }
 
-    private static KeyManagerFactory createKeyManagerFactory(Path keyStorePath) {
-        KeyStore keyStore = createKeyStoreFromCombinedPems(keyStorePath);
+    /** Returns a trust store of the certificates in {@code trust.pem} and the default CAs. */
+    private static KeyStore createTrustStore(Path securityDir) {
+        KeyStore keyStore = createTrustStoreFromCertificates(securityDir.resolve("trust.pem"));
+
+        // Add globally trusted root CAs
+        DefaultCas.getCertificates(securityDir).forEach((certAlias, cert) -> {
+            try {
+                keyStore.setCertificateEntry(certAlias, cert);
+            } catch (KeyStoreException e) {
+                throw new RuntimeException("Unable to add certificate to store", e);
+            }
+        });
+        return keyStore;
+    }
+
+    /**
+     * Returns a {@link KeyManagerFactory} for the key files in {@code securityDir}.
+     *
+     * <p>Uses the PKIX key manager, which selects among multiple key entries according to the key
+     * types and signature schemes each client supports, so that servers with both RSA and ECDSA
+     * keys present the cheaper ECDSA certificate to clients that accept it.
+     */
+    private static KeyManagerFactory createKeyManagerFactory(Path securityDir) {
+        KeyStore keyStore = createKeyStoreFromCombinedPems(getKeyFiles(securityDir));
 
         try {
-            KeyManagerFactory keyManagerFactory =
-                    KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance("PKIX");
             keyManagerFactory.init(keyStore, null);
 
             return keyManagerFactory;
@@ -195,7 +297,7 @@ public final class TransportLayerSecurity {
      * Returns a {@link KeyStore} created by loading the combined PEM (a single PEM with both the
      * key and certificate chain) file or files specified by the provided path.
      *
-     * @param filePathOrDirectory a path to a PEM file containing a PKCS#1 RSA private key and the
+     * @param filePathOrDirectory a path to a PEM file containing a private key and the
      *     certificate(s) for that key in PEM format, or to a directory containing such files. If
      *     the path specifies a directory, every non-hidden file in the directory must be a file of
      *     the specified format or an exception is thrown.
@@ -205,11 +307,15 @@ public final class TransportLayerSecurity {
      *     and all of the key entries.
      */
     public static KeyStore createKeyStoreFromCombinedPems(Path filePathOrDirectory) {
+        return createKeyStoreFromCombinedPems(getFilesForPath(filePathOrDirectory));
+    }
+
+    private static KeyStore createKeyStoreFromCombinedPems(File[] files) {
         try {
             KeyStore keyStore = KeyStore.getInstance("pkcs12");
             keyStore.load(null, null);
 
-            for (File currFile : getFilesForPath(filePathOrDirectory)) {
+            for (File currFile : files) {
                 KeyStore.PrivateKeyEntry privateKeyEntry = readKeyEntryFromPems(currFile.toPath(), currFile.toPath());
                 keyStore.setKeyEntry(
                         currFile.getName(),
@@ -224,6 +330,26 @@ public final class TransportLayerSecurity {
         }
     }
 
+    /**
+     * Returns {@code key.pem} and any additional {@code key-<name>.pem} files in {@code securityDir},
+     * with {@code key.pem} first.
+     */
+    private static File[] getKeyFiles(Path securityDir) {
+        File[] files = securityDir
+                .toFile()
+                .listFiles(file -> VISIBLE_FILE_FILTER.accept(file)
+                        && KEY_FILE_PATTERN.matcher(file.getName()).matches());
+        if (files == null || files.length == 0) {
+            // preserve the historical error for a missing key file
+            return new File[] {securityDir.resolve("key.pem").toFile()};
+        }
+        Arrays.sort(
+                files,
+                Comparator.comparing((File file) -> !file.getName().equals("key.pem"))
+                        .thenComparing(File::getName));
+        return files;
+    }
+
     /**
      * Returns an array of files for the specified path. If the specified path is a directory,
      * returns an array of the visible (not hidden) files in the directory. Otherwise, returns an
@@ -247,13 +373,12 @@ public final class TransportLayerSecurity {
 
     /**
      * Returns a KeyStore.PrivateKeyEntry consisting of the private key and certificate chain in the
-     * files at the provided paths. The key file must contain an RSA private key in PEM format
-     * (PKCS#1) and the certificate file must contain the certificate chain for the key in PEM
-     * format. The key and cert file paths may be the same if there is a single file that contains
-     * both the key and the certificates.
+     * files at the provided paths. The key file must contain a private key in PEM format (PKCS#1
+     * RSA, SEC1 EC or PKCS#8) and the certificate file must contain the certificate chain for the
+     * key in PEM format. The key and cert file paths may be the same if there is a single file that
+     * contains both the key and the certificates.
      *
-     * @param privateKeyFilePath path to a file that contains the RSA private key in PEM format
-     *     (PKCS#1)
+     * @param privateKeyFilePath path to a file that contains the private key in PEM format
      * @param certFilePath path to a file that contains the certificates for the key in PEM format.
      *     If there are multiple certificates in the chain, the file should contain them in chaining
      *     order.
@@ -293,19 +418,19 @@ public final class TransportLayerSecurity {
     }
 
     /**
-     * Returns a PrivateKey representing the first PEM formatted RSA key in the provided string.
-     * Throws an exception if the provided string does not contain a valid RSA key.
+     * Returns a PrivateKey representing the first PEM formatted private key in the provided string.
+     * Throws an exception if the provided string does not contain a valid key.
      *
-     * @param pemFileString string that contains PEM formatted RSA key (PKCS#1). The string can
-     *     contain other content as well (for example, certificates or other information) as long as
-     *     properly formatted RSA key content exists in the string.
-     * @return PrivateKey representing the first RSA key in the provided string
+     * @param pemFileString string that contains a PEM formatted RSA (PKCS#1), EC (SEC1) or PKCS#8
+     *     private key. The string can contain other content as well (for example, certificates or
+     *     other information) as long as properly formatted key content exists in the string.
+     * @return PrivateKey representing the first key in the provided string
      */
     static PrivateKey getPrivateKeyFromString(String pemFileString) throws GeneralSecurityException {
         Matcher matcher = KEY_PATTERN.matcher(pemFileString);
         if (!matcher.find() || !Objects.equals(matcher.group(1), matcher.group(3))) {
             throw new GeneralSecurityException(
-                    String.format("unable to find valid RSA key in the provided string: %s", pemFileString));
+                    String.format("unable to find valid private key in the provided string: %s", pemFileString));
         }
 
         // get content between headers and strip newlines to get Base64 encoded ASN1 DER only
@@ -314,10 +439,13 @@ public final class TransportLayerSecurity {
         // read private key
         byte[] privateKeyDerBytes = BaseEncoding.base64().decode(privateKeyString);
 
-        KeySpec rsaPrivKeySpec = "RSA".equals(matcher.group(1))
-                ? parsePkcs1PrivateKey(privateKeyDerBytes)
-                : parsePkcs8PrivateKey(privateKeyDerBytes);
-        return KeyFactory.getInstance("RSA").generatePrivate(rsaPrivKeySpec);
+        String keyType = Objects.requireNonNullElse(matcher.group(1), "PKCS8");
+        return switch (keyType) {
+            case "RSA" -> KeyFactory.getInstance("RSA").generatePrivate(parsePkcs1PrivateKey(privateKeyDerBytes));
+            case "EC" -> KeyFactory.getInstance("EC").generatePrivate(parseSec1PrivateKey(privateKeyDerBytes));
+            default -> KeyFactory.getInstance(pkcs8KeyAlgorithm(privateKeyDerBytes))
+                    .generatePrivate(parsePkcs8PrivateKey(privateKeyDerBytes));
+        };
     }
 
     /**
@@ -389,9 +517,42 @@ public final class TransportLayerSecurity {
         return new Pkcs1PrivateKeyReader(pkcs1DerBytes).readRsaKey();
     }
 
+    static ECPrivateKeySpec parseSec1PrivateKey(byte[] sec1DerBytes) throws GeneralSecurityException {
+        return new Sec1PrivateKeyReader(sec1DerBytes).readEcKey();
+    }
+
     static PKCS8EncodedKeySpec parsePkcs8PrivateKey(byte[] pkcs8DerBytes) {
         return new PKCS8EncodedKeySpec(pkcs8DerBytes);
     }
 
+    /**
+     * Returns the JCA algorithm name of a PKCS#8 private key, read from its AlgorithmIdentifier.
+     *
+     * <pre>
+     * PrivateKeyInfo ::= SEQUENCE {
+     *     version             INTEGER,
+     *     privateKeyAlgorithm SEQUENCE { algorithm OBJECT IDENTIFIER, parameters ANY OPTIONAL },
+     *     privateKey          OCTET STRING
+     * }
+     * </pre>
+     */
+    static String pkcs8KeyAlgorithm(byte[] pkcs8DerBytes) throws GeneralSecurityException {
+        String oid;
+        try {
+            DerReader der = new DerReader(pkcs8DerBytes);
+            der.enter(DerReader.SEQUENCE);
+            der.readInteger();
+            der.enter(DerReader.SEQUENCE);
+            oid = der.readObjectIdentifier();
+        } catch (RuntimeException e) {
+            throw new GeneralSecurityException("Unable to read PKCS#8 private key algorithm", e);
+        }
+        String algorithm = PKCS8_KEY_ALGORITHMS.get(oid);
+        if (algorithm == null) {
+            throw new GeneralSecurityException("Unsupported PKCS#8 private key algorithm: " + oid);
+        }
+        return algorithm;
+    }
+
     record PemX509Certificate(String pemCertificate) {}
 }
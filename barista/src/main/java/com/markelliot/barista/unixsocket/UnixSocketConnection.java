@@ -0,0 +1,408 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.unixsocket;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.xnio.IoUtils;
+import org.xnio.StreamConnection;
+import org.xnio.Xnio;
+import org.xnio.XnioIoThread;
+import org.xnio.XnioWorker;
+import org.xnio.channels.StreamSinkChannel;
+import org.xnio.channels.StreamSourceChannel;
+import org.xnio.conduits.Conduits;
+import org.xnio.conduits.ReadReadyHandler;
+import org.xnio.conduits.StreamSinkConduit;
+import org.xnio.conduits.StreamSourceConduit;
+import org.xnio.conduits.WriteReadyHandler;
+
+/**
+ * An XNIO connection over a Unix domain socket channel.
+ *
+ * <p>The listener's selector thread watches the channel and runs ready handlers on the XNIO IO
+ * thread that owns the connection, so that, as with XNIO's own connections, the connection's
+ * handlers and tasks only ever run on that thread. Like XNIO's NIO selectors, readiness is
+ * level-triggered: the selector thread stops watching for an event once it fires, and watches for
+ * it again after the handler has run if reads or writes are still resumed.
+ */
+final class UnixSocketConnection extends StreamConnection {
+    private final SocketChannel channel;
+    private final UnixSocketListener listener;
+    private final Conduit conduit = new Conduit();
+    private SelectionKey key;
+    private volatile boolean readResumed = false;
+    private volatile boolean writeResumed = false;
+    private ReadReadyHandler readReadyHandler;
+    private WriteReadyHandler writeReadyHandler;
+
+    UnixSocketConnection(XnioIoThread thread, SocketChannel channel, UnixSocketListener listener) {
+        super(thread);
+        this.channel = channel;
+        this.listener = listener;
+        setSourceConduit(conduit);
+        setSinkConduit(conduit);
+    }
+
+    /** Registers this connection with {@code selector}; must be called on the selector thread. */
+    void register(Selector selector) throws ClosedChannelException {
+        key = channel.register(selector, 0, this);
+    }
+
+    /** Watches for the events the connection has resumed; must be called on the selector thread. */
+    void applyInterest() {
+        if (key.isValid()) {
+            key.interestOps((readResumed ? SelectionKey.OP_READ : 0) | (writeResumed ? SelectionKey.OP_WRITE : 0));
+        }
+    }
+
+    /** Dispatches the events {@code key} is ready for; must be called on the selector thread. */
+    void ready(SelectionKey selected) {
+        int ops = selected.readyOps();
+        selected.interestOps(selected.interestOps() & ~ops);
+        execute(() -> handleReady(ops));
+    }
+
+    /** Runs {@code task} on this connection's IO thread, closing the connection if it has stopped. */
+    void execute(Runnable task) {
+        try {
+            thread.execute(task);
+        } catch (RejectedExecutionException e) {
+            IoUtils.safeClose(this);
+        }
+    }
+
+    private void handleReady(int ops) {
+        if ((ops & SelectionKey.OP_READ) != 0 && readResumed && readReadyHandler != null) {
+            try {
+                readReadyHandler.readReady();
+            } catch (Throwable ignored) {
+                // as in XNIO, handlers are expected to deal with their own failures
+            }
+        }
+        if ((ops & SelectionKey.OP_WRITE) != 0 && writeResumed && writeReadyHandler != null) {
+            try {
+                writeReadyHandler.writeReady();
+            } catch (Throwable ignored) {
+                // as in XNIO, handlers are expected to deal with their own failures
+            }
+        }
+        if (readResumed || writeResumed) {
+            listener.updateInterest(this);
+        }
+    }
+
+    @Override
+    public SocketAddress getPeerAddress() {
+        try {
+            return channel.getRemoteAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public SocketAddress getLocalAddress() {
+        try {
+            return channel.getLocalAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected void closeAction() throws IOException {
+        listener.closed(this);
+        channel.close();
+    }
+
+    @Override
+    protected void notifyReadClosed() {
+        conduit.readTerminated();
+        super.notifyReadClosed();
+    }
+
+    @Override
+    protected void notifyWriteClosed() {
+        conduit.writeTerminated();
+        super.notifyWriteClosed();
+    }
+
+    private final class Conduit implements StreamSourceConduit, StreamSinkConduit {
+        @Override
+        public XnioWorker getWorker() {
+            return thread.getWorker();
+        }
+
+        // Read methods
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            int read;
+            try {
+                read = channel.read(dst);
+            } catch (ClosedChannelException e) {
+                return -1;
+            }
+            if (read == -1) {
+                terminateReads();
+            }
+            return read;
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            long read;
+            try {
+                read = channel.read(dsts, offset, length);
+            } catch (ClosedChannelException e) {
+                return -1;
+            }
+            if (read == -1) {
+                terminateReads();
+            }
+            return read;
+        }
+
+        @Override
+        public long transferTo(long position, long count, FileChannel target) throws IOException {
+            return target.transferFrom(channel, position, count);
+        }
+
+        @Override
+        public long transferTo(long count, ByteBuffer throughBuffer, StreamSinkChannel target) throws IOException {
+            return Conduits.transfer(this, count, throughBuffer, target);
+        }
+
+        @Override
+        public void terminateReads() throws IOException {
+            if (readClosed()) {
+                readResumed = false;
+                try {
+                    if (channel.isOpen()) {
+                        channel.shutdownInput();
+                    }
+                } catch (ClosedChannelException ignored) {
+                    // closed concurrently
+                } finally {
+                    readTerminated();
+                }
+            }
+        }
+
+        void readTerminated() {
+            ReadReadyHandler handler = readReadyHandler;
+            if (handler != null) {
+                try {
+                    handler.terminated();
+                } catch (Throwable ignored) {
+                    // as in XNIO, handlers are expected to deal with their own failures
+                }
+            }
+        }
+
+        @Override
+        public boolean isReadShutdown() {
+            return UnixSocketConnection.this.isReadShutdown();
+        }
+
+        @Override
+        public void resumeReads() {
+            if (!readResumed) {
+                readResumed = true;
+                listener.updateInterest(UnixSocketConnection.this);
+            }
+        }
+
+        @Override
+        public void suspendReads() {
+            // the selector thread stops watching for reads the next time it sees them
+            readResumed = false;
+        }
+
+        @Override
+        public void wakeupReads() {
+            readResumed = true;
+            execute(() -> handleReady(SelectionKey.OP_READ));
+        }
+
+        @Override
+        public boolean isReadResumed() {
+            return readResumed;
+        }
+
+        @Override
+        public void awaitReadable() throws IOException {
+            await(SelectionKey.OP_READ, 0);
+        }
+
+        @Override
+        public void awaitReadable(long time, TimeUnit timeUnit) throws IOException {
+            await(SelectionKey.OP_READ, Math.max(1, timeUnit.toMillis(time)));
+        }
+
+        @Override
+        public XnioIoThread getReadThread() {
+            return thread;
+        }
+
+        @Override
+        public void setReadReadyHandler(ReadReadyHandler handler) {
+            readReadyHandler = handler;
+        }
+
+        // Write methods
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return channel.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return channel.write(srcs, offset, length);
+        }
+
+        @Override
+        public int writeFinal(ByteBuffer src) throws IOException {
+            return Conduits.writeFinalBasic(this, src);
+        }
+
+        @Override
+        public long writeFinal(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return Conduits.writeFinalBasic(this, srcs, offset, length);
+        }
+
+        @Override
+        public long transferFrom(FileChannel src, long position, long count) throws IOException {
+            return src.transferTo(position, count, channel);
+        }
+
+        @Override
+        public long transferFrom(StreamSourceChannel source, long count, ByteBuffer throughBuffer) throws IOException {
+            return Conduits.transfer(source, count, throughBuffer, this);
+        }
+
+        @Override
+        public boolean flush() {
+            return true;
+        }
+
+        @Override
+        public void terminateWrites() throws IOException {
+            if (writeClosed()) {
+                writeResumed = false;
+                try {
+                    if (channel.isOpen()) {
+                        channel.shutdownOutput();
+                    }
+                } catch (ClosedChannelException ignored) {
+                    // closed concurrently
+                } finally {
+                    writeTerminated();
+                }
+            }
+        }
+
+        @Override
+        public void truncateWrites() throws IOException {
+            terminateWrites();
+        }
+
+        void writeTerminated() {
+            WriteReadyHandler handler = writeReadyHandler;
+            if (handler != null) {
+                try {
+                    handler.terminated();
+                } catch (Throwable ignored) {
+                    // as in XNIO, handlers are expected to deal with their own failures
+                }
+            }
+        }
+
+        @Override
+        public boolean isWriteShutdown() {
+            return UnixSocketConnection.this.isWriteShutdown();
+        }
+
+        @Override
+        public void resumeWrites() {
+            if (!writeResumed) {
+                writeResumed = true;
+                listener.updateInterest(UnixSocketConnection.this);
+            }
+        }
+
+        @Override
+        public void suspendWrites() {
+            // the selector thread stops watching for writes the next time it sees them
+            writeResumed = false;
+        }
+
+        @Override
+        public void wakeupWrites() {
+            writeResumed = true;
+            execute(() -> handleReady(SelectionKey.OP_WRITE));
+        }
+
+        @Override
+        public boolean isWriteResumed() {
+            return writeResumed;
+        }
+
+        @Override
+        public void awaitWritable() throws IOException {
+            if (!isWriteShutdown()) {
+                await(SelectionKey.OP_WRITE, 0);
+            }
+        }
+
+        @Override
+        public void awaitWritable(long time, TimeUnit timeUnit) throws IOException {
+            if (!isWriteShutdown()) {
+                await(SelectionKey.OP_WRITE, Math.max(1, timeUnit.toMillis(time)));
+            }
+        }
+
+        @Override
+        public XnioIoThread getWriteThread() {
+            return thread;
+        }
+
+        @Override
+        public void setWriteReadyHandler(WriteReadyHandler handler) {
+            writeReadyHandler = handler;
+        }
+
+        /** Blocks until the channel is ready for {@code op}, or {@code timeoutMillis} elapses if positive. */
+        private void await(int op, long timeoutMillis) throws IOException {
+            Xnio.checkBlockingAllowed();
+            try (Selector selector = Selector.open()) {
+                channel.register(selector, op);
+                selector.select(timeoutMillis);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.unixsocket;
+
+import io.undertow.server.DefaultByteBufferPool;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.protocol.http.HttpOpenListener;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xnio.IoUtils;
+import org.xnio.XnioWorker;
+
+/**
+ * Serves HTTP/1.1 on a Unix domain socket, so that local clients such as sidecar proxies reach the
+ * server without going through the loopback TCP stack.
+ *
+ * <p>Neither XNIO nor Undertow support Unix domain sockets, so a dedicated thread accepts
+ * connections and selects on them, and hands each readiness event to the XNIO IO thread that owns
+ * the connection. From there, Undertow's HTTP/1.1 implementation serves the connection exactly as
+ * it would a TCP connection.
+ */
+public final class UnixSocketListener implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(UnixSocketListener.class);
+    // matches the buffers Undertow allocates for TCP listeners on machines with plenty of memory
+    private static final int BUFFER_SIZE = 16 * 1024 - 20;
+
+    private final Path path;
+    private final XnioWorker worker;
+    private final HttpOpenListener openListener;
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final Queue<UnixSocketConnection> interestChanges = new ConcurrentLinkedQueue<>();
+    private final Set<UnixSocketConnection> connections = ConcurrentHashMap.newKeySet();
+    private final Thread selectorThread;
+    private volatile boolean closed = false;
+
+    private UnixSocketListener(
+            Path path,
+            XnioWorker worker,
+            HttpOpenListener openListener,
+            ServerSocketChannel server,
+            Selector selector) {
+        this.path = path;
+        this.worker = worker;
+        this.openListener = openListener;
+        this.server = server;
+        this.selector = selector;
+        this.selectorThread = new Thread(this::run, "barista-unix-socket");
+        this.selectorThread.setDaemon(true);
+        this.selectorThread.start();
+    }
+
+    /**
+     * Starts serving {@code handler} on a socket at {@code path}, replacing any socket left there by
+     * a previous process, with connections run by the IO threads of {@code worker}.
+     */
+    public static UnixSocketListener start(Path path, XnioWorker worker, HttpHandler handler) {
+        try {
+            deleteStaleSocket(path);
+            ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            server.bind(UnixDomainSocketAddress.of(path));
+            server.configureBlocking(false);
+            Selector selector = Selector.open();
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            HttpOpenListener openListener = new HttpOpenListener(new DefaultByteBufferPool(true, BUFFER_SIZE));
+            openListener.setRootHandler(handler);
+            return new UnixSocketListener(path, worker, openListener, server, selector);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Unable to listen on Unix domain socket '%s'", path), e);
+        }
+    }
+
+    private static void deleteStaleSocket(Path path) throws IOException {
+        if (Files.exists(path, LinkOption.NOFOLLOW_LINKS)
+                && Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS)
+                        .isOther()) {
+            Files.delete(path);
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /** Asks the selector thread to update the events it waits for on {@code connection}. */
+    void updateInterest(UnixSocketConnection connection) {
+        interestChanges.add(connection);
+        selector.wakeup();
+    }
+
+    void closed(UnixSocketConnection connection) {
+        connections.remove(connection);
+    }
+
+    private void run() {
+        while (!closed) {
+            try {
+                selector.select();
+                UnixSocketConnection changed;
+                while ((changed = interestChanges.poll()) != null) {
+                    changed.applyInterest();
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else if (key.isValid()) {
+                            ((UnixSocketConnection) key.attachment()).ready(key);
+                        }
+                    } catch (CancelledKeyException ignored) {
+                        // the connection was closed after it was selected
+                    }
+                }
+                selector.selectedKeys().clear();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Error while serving Unix domain socket {}", path, e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            UnixSocketConnection connection = new UnixSocketConnection(worker.getIoThread(), channel, this);
+            connection.register(selector);
+            connections.add(connection);
+            connection.execute(() -> openListener.handleEvent(connection));
+        }
+    }
+
+    /** Stops accepting connections, closes open connections and removes the socket. */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        connections.forEach(IoUtils::safeClose);
+        IoUtils.safeClose(server, selector);
+        Files.deleteIfExists(path);
+    }
+}
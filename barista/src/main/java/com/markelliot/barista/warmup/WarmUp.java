@@ -0,0 +1,215 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.warmup;
+
+import com.google.common.base.Stopwatch;
+import com.markelliot.barista.Threads;
+import io.undertow.server.DefaultByteBufferPool;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.protocol.http.HttpOpenListener;
+import io.undertow.util.AttachmentKey;
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.xnio.ChannelPipe;
+import org.xnio.IoUtils;
+import org.xnio.StreamConnection;
+import org.xnio.XnioWorker;
+import org.xnio.channels.Channels;
+
+/**
+ * Replays sample requests through a server's handlers until the JIT compiler stops finding new
+ * work, so that the first real requests run compiled code rather than the interpreter.
+ *
+ * <p>Requests travel over in-process pipes rather than sockets, and are parsed and served by
+ * Undertow's HTTP/1.1 implementation and the server's full handler chain, exactly as requests
+ * from clients are. Compilation is considered settled once the JIT spends less than 2% of a 250
+ * ms window compiling for two consecutive windows; on JVMs that don't report compilation time,
+ * requests are replayed for ten windows.
+ *
+ * <p>Warm-up requests are marked so that {@link #isWarmUp} identifies them, and are left out of
+ * request metrics, access logs, traces, Java Flight Recorder events and slow request detection.
+ */
+public final class WarmUp {
+    private static final Duration WINDOW = Duration.ofMillis(250);
+    private static final long QUIET_COMPILATION_MILLIS = WINDOW.toMillis() / 50;
+    private static final int QUIET_WINDOWS = 2;
+    private static final int WINDOWS_WITHOUT_MONITORING = 10;
+    private static final long RESPONSE_TIMEOUT_SECONDS = 10;
+    private static final int BUFFER_SIZE = 16 * 1024 - 20;
+    private static final AttachmentKey<Boolean> WARM_UP = AttachmentKey.create(Boolean.class);
+
+    private final XnioWorker worker;
+    private final HttpOpenListener openListener;
+    private final List<byte[]> requests;
+    private final Optional<CompilationMXBean> compiler;
+    private final AtomicBoolean done = new AtomicBoolean();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private WarmUp(XnioWorker worker, HttpHandler handler, List<WarmUpRequest> requests) {
+        this.worker = worker;
+        this.openListener = new HttpOpenListener(new DefaultByteBufferPool(false, BUFFER_SIZE));
+        this.openListener.setRootHandler(exchange -> {
+            exchange.putAttachment(WARM_UP, true);
+            handler.handleRequest(exchange);
+        });
+        this.requests = requests.stream().map(WarmUpRequest::encode).toList();
+        this.compiler = Optional.ofNullable(ManagementFactory.getCompilationMXBean())
+                .filter(CompilationMXBean::isCompilationTimeMonitoringSupported);
+    }
+
+    /** Returns true if {@code exchange} is a warm-up request rather than one from a client. */
+    public static boolean isWarmUp(HttpServerExchange exchange) {
+        return exchange.getAttachment(WARM_UP) != null;
+    }
+
+    /** Summarizes a warm-up: how many requests were sent and how many failed with a 4xx or 5xx. */
+    public record Result(long requests, long failures, Duration elapsed, boolean settled) {}
+
+    /**
+     * Replays {@code requests} through {@code handler}, served by the IO threads of {@code worker},
+     * until compilation settles or {@code timeout} elapses. Requests are sent concurrently by one
+     * thread per IO thread.
+     */
+    public static Result run(XnioWorker worker, HttpHandler handler, List<WarmUpRequest> requests, Duration timeout) {
+        return new WarmUp(worker, handler, requests).run(timeout);
+    }
+
+    private Result run(Duration timeout) {
+        Stopwatch elapsed = Stopwatch.createStarted();
+        int senders = Math.max(1, worker.getIoThreadCount());
+        ExecutorService executor = Executors.newFixedThreadPool(senders, Threads.daemon("barista-warm-up"));
+        for (int i = 0; i < senders; i++) {
+            int first = i;
+            executor.execute(() -> sendUntilDone(first));
+        }
+        boolean settled = false;
+        try {
+            settled = awaitSettled(elapsed, timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            done.set(true);
+            executor.shutdown();
+        }
+        try {
+            executor.awaitTermination(RESPONSE_TIMEOUT_SECONDS + 1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new Result(sent.get(), failures.get(), elapsed.elapsed(), settled);
+    }
+
+    private boolean awaitSettled(Stopwatch elapsed, Duration timeout) throws InterruptedException {
+        int quietWindows = 0;
+        int windows = 0;
+        long compilationMillis = compilationMillis();
+        while (elapsed.elapsed().plus(WINDOW).compareTo(timeout) <= 0) {
+            Thread.sleep(WINDOW.toMillis());
+            windows++;
+            if (compiler.isEmpty()) {
+                if (windows >= WINDOWS_WITHOUT_MONITORING) {
+                    return true;
+                }
+                continue;
+            }
+            long previous = compilationMillis;
+            compilationMillis = compilationMillis();
+            quietWindows = compilationMillis - previous < QUIET_COMPILATION_MILLIS ? quietWindows + 1 : 0;
+            if (quietWindows >= QUIET_WINDOWS) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sendUntilDone(int first) {
+        ByteBuffer response = ByteBuffer.allocate(BUFFER_SIZE);
+        for (int i = first; !done.get(); i++) {
+            int status = send(requests.get(i % requests.size()), response);
+            sent.incrementAndGet();
+            if (status >= 400 || status < 0) {
+                failures.incrementAndGet();
+            }
+        }
+    }
+
+    private long compilationMillis() {
+        return compiler.map(CompilationMXBean::getTotalCompilationTime).orElse(0L);
+    }
+
+    /** Sends {@code request} over a new connection and returns the response status, or -1. */
+    private int send(byte[] request, ByteBuffer response) {
+        ChannelPipe<StreamConnection, StreamConnection> pipe;
+        try {
+            pipe = worker.getIoThread().createFullDuplexPipeConnection();
+        } catch (IOException e) {
+            return -1;
+        }
+        StreamConnection client = pipe.getLeftSide();
+        StreamConnection server = pipe.getRightSide();
+        try {
+            server.getIoThread().execute(() -> openListener.handleEvent(server));
+            ByteBuffer buffer = ByteBuffer.wrap(request);
+            while (buffer.hasRemaining()) {
+                Channels.writeBlocking(client.getSinkChannel(), buffer);
+            }
+            Channels.flushBlocking(client.getSinkChannel());
+            return readStatus(client, response);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        } finally {
+            IoUtils.safeClose(client, server);
+        }
+    }
+
+    /** Reads the response until the server closes the connection, and returns its status code. */
+    private static int readStatus(StreamConnection client, ByteBuffer response) throws IOException {
+        response.clear();
+        int status = -1;
+        while (true) {
+            int read = Channels.readBlocking(
+                    client.getSourceChannel(), response, RESPONSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (read == -1) {
+                return status;
+            }
+            if (read == 0) {
+                // timed out
+                return -1;
+            }
+            // status line is "HTTP/1.1 200 ..."
+            if (status == -1 && response.position() >= 12) {
+                status = Integer.parseInt(new String(response.array(), 9, 3, StandardCharsets.US_ASCII));
+            }
+            if (!response.hasRemaining()) {
+                response.position(12);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.warmup;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.markelliot.barista.HttpMethod;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A sample request replayed against the server while it warms up, typically a representative call
+ * to each hot endpoint including any {@code Authorization} header it needs.
+ */
+public record WarmUpRequest(HttpMethod method, String path, Map<String, String> headers, Optional<String> body) {
+    public WarmUpRequest {
+        Preconditions.checkArgument(path.startsWith("/"), "Warm-up request path must start with '/'");
+        headers = ImmutableMap.copyOf(headers);
+    }
+
+    public static WarmUpRequest of(HttpMethod method, String path) {
+        return new WarmUpRequest(method, path, Map.of(), Optional.empty());
+    }
+
+    public WarmUpRequest withHeader(String name, String value) {
+        return new WarmUpRequest(
+                method,
+                path,
+                ImmutableMap.<String, String>builder()
+                        .putAll(headers)
+                        .put(name, value)
+                        .buildOrThrow(),
+                body);
+    }
+
+    /** Returns a copy of this request with a JSON {@code body}. */
+    public WarmUpRequest withBody(String json) {
+        return new WarmUpRequest(method, path, headers, Optional.of(json))
+                .withHeader("Content-Type", "application/json");
+    }
+
+    /** Returns this request encoded as HTTP/1.1, asking the server to close the connection after. */
+    byte[] encode() {
+        byte[] content = body.map(b -> b.getBytes(StandardCharsets.UTF_8)).orElse(new byte[0]);
+        StringBuilder request = new StringBuilder()
+                .append(method.method())
+                .append(' ')
+                .append(path)
+                .append(" HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\nContent-Length: ")
+                .append(content.length)
+                .append("\r\n");
+        headers.forEach(
+                (name, value) -> request.append(name).append(": ").append(value).append("\r\n"));
+        request.append("\r\n");
+        byte[] head = request.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] encoded = new byte[head.length + content.length];
+        System.arraycopy(head, 0, encoded, 0, head.length);
+        System.arraycopy(content, 0, encoded, head.length, content.length);
+        return encoded;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.appender.AsyncAppender;
+import org.apache.logging.log4j.core.appender.ConsoleAppender;
+import org.apache.logging.log4j.core.appender.RollingRandomAccessFileAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class LoggingTests {
+    @Test
+    void testLogsToConsoleThroughAsyncAppender() {
+        Configuration config = start(new Logging.Settings(1024, Logging.QueueFullPolicy.DISCARD, Optional.empty()));
+        try {
+            AsyncAppender async = rootAppender(config);
+            assertThat(async.getQueueCapacity()).isEqualTo(1024);
+            assertThat(async.isBlocking()).isFalse();
+            assertThat(async.getAppenderRefStrings()).containsExactly("stdout");
+            assertThat(config.<Appender>getAppender("stdout")).isInstanceOf(ConsoleAppender.class);
+        } finally {
+            config.stop();
+        }
+    }
+
+    @Test
+    void testLogsToRollingFileIfConfigured(@TempDir Path dir) {
+        String file = dir.resolve("server.log").toString();
+        Configuration config = start(new Logging.Settings(1024, Logging.QueueFullPolicy.BLOCK, Optional.of(file)));
+        try {
+            AsyncAppender async = rootAppender(config);
+            assertThat(async.isBlocking()).isTrue();
+            assertThat(async.getAppenderRefStrings()).containsExactly("file");
+            assertThat(config.<RollingRandomAccessFileAppender>getAppender("file"))
+                    .satisfies(appender -> assertThat(appender.getFileName()).isEqualTo(file))
+                    .satisfies(appender -> assertThat(appender.getFilePattern()).isEqualTo(file + ".%i"));
+        } finally {
+            config.stop();
+        }
+    }
+
+    private static Configuration start(Logging.Settings settings) {
+        Configuration config =
+                Logging.createConfiguration("test", ConfigurationBuilderFactory.newConfigurationBuilder(), settings);
+        config.initialize();
+        config.start();
+        return config;
+    }
+
+    private static AsyncAppender rootAppender(Configuration config) {
+        assertThat(config.getRootLogger().getAppenders()).containsOnlyKeys("async");
+        return (AsyncAppender) config.getRootLogger().getAppenders().get("async");
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.markelliot.barista.RequestTimings.Phase;
+import io.undertow.server.HttpServerExchange;
+import org.junit.jupiter.api.Test;
+
+final class RequestTimingsTests {
+    @Test
+    void testReportsOnlyPhasesThatOccurred() {
+        HttpServerExchange exchange = new HttpServerExchange(null);
+        RequestTimings timings = RequestTimings.of(exchange);
+        assertThat(RequestTimings.of(exchange)).isSameAs(timings);
+
+        assertThat(timings.started()).isFalse();
+        timings.dispatched();
+        assertThat(timings.started()).isTrue();
+        assertThat(timings.started()).isFalse();
+        long start = System.nanoTime();
+        timings.record(Phase.HANDLER, start);
+        timings.record(Phase.HANDLER, start);
+        timings.complete("abc");
+
+        assertThat(timings.nanos(Phase.QUEUE)).isNotNegative();
+        assertThat(timings.nanos(Phase.HANDLER)).isNotNegative();
+        assertThat(timings.nanos(Phase.AUTH)).isEqualTo(-1);
+        assertThat(timings.toString()).matches("timings traceId=abc total=\\d+us queue=\\d+us handler=\\d+us");
+    }
+
+    @Test
+    void testReportsResourcesIfMeasured() {
+        RequestTimings timings = RequestTimings.of(new HttpServerExchange(null));
+        timings.recordResources(2_000, 100);
+        timings.recordResources(1_000, 50);
+        timings.complete("abc");
+
+        assertThat(timings.cpuNanos()).isEqualTo(3_000);
+        assertThat(timings.allocatedBytes()).isEqualTo(150);
+        assertThat(timings.toString()).endsWith(" cpu=3us alloc=150B");
+    }
+}
@@ -17,20 +17,42 @@
 package com.markelliot.barista;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.markelliot.barista.endpoints.EndpointHandler;
 import com.markelliot.barista.endpoints.EndpointRuntime;
+import com.markelliot.barista.tls.TransportLayerSecurity;
+import com.markelliot.barista.warmup.WarmUpRequest;
 import io.undertow.server.HttpHandler;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.cert.CertificateFactory;
+import java.time.Duration;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 final class ServerTests {
     private static final HttpClient CLIENT = HttpClient.newHttpClient();
@@ -43,6 +65,156 @@ final class ServerTests {
                 .port(8080)
                 .disableTls()
                 .enableStrictTransportSecurity()
+                .endpoints(() -> Set.of(helloWorld()))
+                .start();
+    }
+
+    private static EndpointHandler helloWorld() {
+        return new EndpointHandler() {
+            @Override
+            public HttpMethod method() {
+                return HttpMethod.GET;
+            }
+
+            @Override
+            public String route() {
+                return "/hello-world";
+            }
+
+            @Override
+            public HttpHandler handler(EndpointRuntime runtime) {
+                return exchange -> runtime.handle(() -> "Hello World", exchange);
+            }
+        };
+    }
+
+    @AfterAll
+    static void afterAll() {
+        server.stop();
+    }
+
+    @Test
+    void smokeTest() throws IOException, InterruptedException {
+        assertResponse("http://localhost:8080/hello-world", 200, "\"Hello World\"");
+        assertResponse("http://localhost:8080/missing", 404, "Unknown API Endpoint");
+    }
+
+    @Test
+    void testHttp2PriorKnowledgeAndUpgrade() throws IOException, InterruptedException {
+        HttpClient http2Client =
+                HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+        // HTTP/2 is opt-in
+        assertThat(http2Client
+                        .send(helloWorldRequest("http://localhost:8080/hello-world"), BodyHandlers.ofString())
+                        .version())
+                .isEqualTo(HttpClient.Version.HTTP_1_1);
+
+        Server http2 = Server.builder()
+                .port(0)
+                .disableTls()
+                .allowAllOrigins()
+                .enableHttp2()
+                .endpoints(() -> Set.of(helloWorld()))
+                .start();
+        try {
+            HttpResponse<String> result =
+                    http2Client.send(helloWorldRequest(url(http2, "http", "/hello-world")), BodyHandlers.ofString());
+            assertThat(result.statusCode()).isEqualTo(200);
+            assertThat(result.body()).isEqualTo("\"Hello World\"");
+            assertThat(result.version()).isEqualTo(HttpClient.Version.HTTP_2);
+        } finally {
+            http2.stop();
+        }
+    }
+
+    @Test
+    void testHttp2OverTlsWithAlpn(@TempDir Path securityDir) throws Exception {
+        String pem = fixture("rsa-pkcs1.pem");
+        String certificate = pem.substring(pem.indexOf("-----BEGIN CERTIFICATE-----"));
+        Files.writeString(securityDir.resolve("key.pem"), pem);
+        Files.writeString(securityDir.resolve("trust.pem"), certificate);
+        Files.writeString(securityDir.resolve("cas.pem"), certificate);
+        Server http2 = Server.builder()
+                .port(0)
+                .sslContext(TransportLayerSecurity.createSslContext(securityDir))
+                .allowAllOrigins()
+                .enableHttp2()
+                .endpoints(() -> Set.of(helloWorld()))
+                .start();
+        try {
+            HttpClient http2Client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .sslContext(trusting("rsa-pkcs1.pem"))
+                    .build();
+            HttpResponse<String> result =
+                    http2Client.send(helloWorldRequest(url(http2, "https", "/hello-world")), BodyHandlers.ofString());
+            assertThat(result.statusCode()).isEqualTo(200);
+            assertThat(result.body()).isEqualTo("\"Hello World\"");
+            assertThat(result.version()).isEqualTo(HttpClient.Version.HTTP_2);
+            assertThat(result.sslSession()).hasValueSatisfying(session -> assertThat(session.getProtocol())
+                    .startsWith("TLS"));
+        } finally {
+            http2.stop();
+        }
+    }
+
+    @Test
+    void testServesAdditionalListeners(@TempDir Path securityDir) throws Exception {
+        String pem = fixture("rsa-pkcs1.pem");
+        String certificate = pem.substring(pem.indexOf("-----BEGIN CERTIFICATE-----"));
+        Files.writeString(securityDir.resolve("key.pem"), pem);
+        Files.writeString(securityDir.resolve("trust.pem"), certificate);
+        Files.writeString(securityDir.resolve("cas.pem"), certificate);
+        Server multi = Server.builder()
+                .port(0)
+                .sslContext(TransportLayerSecurity.createSslContext(securityDir))
+                .allowAllOrigins()
+                .metricsRoute("/metrics")
+                .tlsListener("localhost", 0)
+                .plaintextListener("127.0.0.1", 0)
+                .acceptBacklog(2048)
+                .endpoints(() -> Set.of(helloWorld()))
+                .start();
+        try {
+            HttpClient tlsClient = HttpClient.newBuilder()
+                    .sslContext(trusting("rsa-pkcs1.pem"))
+                    .build();
+            List<InetSocketAddress> addresses = multi.addresses();
+            assertThat(addresses).hasSize(3);
+            int port = addresses.get(0).getPort();
+            int tlsPort = addresses.get(1).getPort();
+            int plaintextPort = addresses.get(2).getPort();
+            for (String uri : List.of(
+                    "https://localhost:" + port + "/hello-world",
+                    "https://localhost:" + tlsPort + "/hello-world",
+                    "http://127.0.0.1:" + plaintextPort + "/hello-world")) {
+                HttpResponse<String> result = tlsClient.send(helloWorldRequest(uri), BodyHandlers.ofString());
+                assertThat(result.statusCode()).isEqualTo(200);
+                assertThat(result.body()).isEqualTo("\"Hello World\"");
+            }
+
+            assertThat(get("http://127.0.0.1:" + plaintextPort + "/metrics").body())
+                    .containsPattern(listenerRequests("https", port))
+                    .containsPattern(listenerRequests("https", tlsPort))
+                    .containsPattern(listenerRequests("http", plaintextPort));
+        } finally {
+            multi.stop();
+        }
+    }
+
+    @Test
+    void testLeavesWarmUpRequestsOutOfObservability(@TempDir Path dir) throws Exception {
+        AtomicLong served = new AtomicLong();
+        Server warm = Server.builder()
+                .port(0)
+                .disableTls()
+                .allowAllOrigins()
+                .metricsRoute("/metrics")
+                .tracingRate(1.0)
+                .traceLogFile(dir.resolve("trace.log"))
+                .accessLogFile(dir.resolve("access.log"))
+                .warmUpRequest(WarmUpRequest.of(HttpMethod.GET, "/hello-world").withHeader("Origin", "localhost"))
+                .warmUpTimeout(Duration.ofSeconds(1))
                 .endpoints(() -> Set.of(new EndpointHandler() {
                     @Override
                     public HttpMethod method() {
@@ -56,21 +228,153 @@ final class ServerTests {
 
                     @Override
                     public HttpHandler handler(EndpointRuntime runtime) {
-                        return exchange -> runtime.handle(() -> "Hello World", exchange);
+                        return exchange -> runtime.handle(served::incrementAndGet, exchange);
                     }
                 }))
                 .start();
+        try {
+            assertThat(served).hasPositiveValue();
+            assertThat(get(url(warm, "http", "/metrics")).body())
+                    .doesNotContain("barista_http_request_duration_seconds_count{method=\"GET\",route=\"/hello-world\"")
+                    .contains("barista_http_requests_in_flight{method=\"GET\",route=\"/hello-world\"} 0");
+        } finally {
+            warm.stop();
+        }
+        try (Stream<Path> logs = Files.list(dir)) {
+            assertThat(logs).isNotEmpty().allSatisfy(log -> assertThat(log).isEmptyFile());
+        }
     }
 
-    @AfterAll
-    static void afterAll() {
-        server.stop();
+    @Test
+    void testServesMetrics() throws IOException, InterruptedException {
+        Server metrics = Server.builder()
+                .port(0)
+                .disableTls()
+                .allowAllOrigins()
+                .metricsRoute("/metrics")
+                .endpoints(() -> Set.of(helloWorld()))
+                .start();
+        try {
+            assertThat(CLIENT.send(helloWorldRequest(url(metrics, "http", "/hello-world")), BodyHandlers.ofString())
+                            .statusCode())
+                    .isEqualTo(200);
+            HttpResponse<String> result = get(url(metrics, "http", "/metrics"));
+            assertThat(result.statusCode()).isEqualTo(200);
+            assertThat(result.headers().firstValue("content-type"))
+                    .hasValue("text/plain; version=0.0.4; charset=utf-8");
+            assertThat(result.body())
+                    .contains("# TYPE barista_http_request_duration_seconds histogram")
+                    .contains("# TYPE barista_worker_queue_size gauge")
+                    .contains("# TYPE barista_io_thread_lag_seconds histogram")
+                    .containsPattern("barista_listener_requests_total\\{listener=\"http [^\"]+\"} [1-9]")
+                    .contains("barista_http_request_duration_seconds_count{method=\"GET\",route=\"/hello-world\","
+                            + "status=\"2xx\"}");
+        } finally {
+            metrics.stop();
+        }
     }
 
     @Test
-    void smokeTest() throws IOException, InterruptedException {
-        assertResponse("http://localhost:8080/hello-world", 200, "\"Hello World\"");
-        assertResponse("http://localhost:8080/missing", 404, "Unknown API Endpoint");
+    void testServesReadinessRoute() throws IOException, InterruptedException {
+        Server ready = Server.builder()
+                .port(0)
+                .disableTls()
+                .allowAllOrigins()
+                .readinessRoute("/ready")
+                .endpoints(() -> Set.of(helloWorld()))
+                .start();
+        try {
+            HttpResponse<String> result = get(url(ready, "http", "/ready"));
+            assertThat(result.statusCode()).isEqualTo(200);
+            assertThat(result.body()).isEqualTo("ready");
+        } finally {
+            ready.stop();
+        }
+    }
+
+    @Test
+    void testDrainsBeforeShuttingDown() throws IOException, InterruptedException {
+        Server draining = Server.builder()
+                .port(0)
+                .disableTls()
+                .allowAllOrigins()
+                .readinessRoute("/ready")
+                .shutdownDelay(Duration.ofSeconds(2))
+                .endpoints(() -> Set.of(helloWorld()))
+                .start();
+        assertThat(get(url(draining, "http", "/ready")).statusCode()).isEqualTo(200);
+
+        Thread stopper = new Thread(draining::stop);
+        stopper.start();
+        HttpResponse<String> readiness = get(url(draining, "http", "/ready"));
+        for (int i = 0; i < 100 && readiness.statusCode() == 200; i++) {
+            Thread.sleep(10);
+            readiness = get(url(draining, "http", "/ready"));
+        }
+        assertThat(readiness.statusCode()).isEqualTo(503);
+
+        HttpResponse<String> result = get(url(draining, "http", "/hello-world"));
+        assertThat(result.statusCode()).isEqualTo(200);
+        assertThat(result.headers().firstValue("connection")).hasValue("close");
+        stopper.join();
+    }
+
+    @Test
+    void testInterruptedStopStillReleasesResources(@TempDir Path dir) throws InterruptedException {
+        Path socket = dir.resolve("barista.sock");
+        Server server = Server.builder()
+                .port(0)
+                .disableTls()
+                .unixSocket(socket)
+                .shutdownDelay(Duration.ofMinutes(1))
+                .endpoints(() -> Set.of(helloWorld()))
+                .start();
+        assertThat(socket).exists();
+
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread stopper = new Thread(() -> {
+            try {
+                server.stop();
+            } catch (RuntimeException e) {
+                interrupted.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        stopper.start();
+        stopper.interrupt();
+        stopper.join();
+
+        assertThat(interrupted).isTrue();
+        assertThat(socket).doesNotExist();
+    }
+
+    @Test
+    void testReleasesResourcesIfStartFails(@TempDir Path dir) throws Exception {
+        Set<Thread> existing = baristaThreads();
+        try (ServerSocket occupied = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Server.Builder builder = Server.builder()
+                    .port(0)
+                    .disableTls()
+                    .plaintextListener("127.0.0.1", occupied.getLocalPort())
+                    .slowRequestThreshold(Duration.ofSeconds(1))
+                    .traceLogFile(dir.resolve("trace.log"))
+                    .accessLogFile(dir.resolve("access.log"))
+                    .endpoints(() -> Set.of(helloWorld()));
+            assertThatThrownBy(builder::start).isInstanceOf(RuntimeException.class);
+        }
+
+        Set<Thread> leaked = baristaThreads();
+        for (int i = 0; i < 100 && !existing.containsAll(leaked); i++) {
+            Thread.sleep(50);
+            leaked = baristaThreads();
+        }
+        leaked.removeAll(existing);
+        assertThat(leaked).isEmpty();
+    }
+
+    private static Set<Thread> baristaThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("barista-"))
+                .collect(Collectors.toSet());
     }
 
     @Test
@@ -79,6 +383,51 @@ final class ServerTests {
         assertCorsFailure("http://localhost:8080/missing");
     }
 
+    private static HttpRequest helloWorldRequest(String uri) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(uri))
+                .header("origin", "localhost:8181")
+                .GET()
+                .build();
+    }
+
+    /** Returns the URL of {@code path} on {@code server}'s port. */
+    private static String url(Server server, String scheme, String path) {
+        return scheme + "://localhost:" + server.addresses().get(0).getPort() + path;
+    }
+
+    private static String listenerRequests(String protocol, int port) {
+        return "barista_listener_requests_total\\{listener=\"" + protocol + " [^\"]+:" + port + "\"} [1-9]";
+    }
+
+    /** Returns a client context that trusts only the certificate in {@code fixture}. */
+    static SSLContext trusting(String fixture) throws Exception {
+        String pem = fixture(fixture);
+        byte[] certificate =
+                pem.substring(pem.indexOf("-----BEGIN CERTIFICATE-----")).getBytes(StandardCharsets.UTF_8);
+        KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        trustStore.load(null, null);
+        trustStore.setCertificateEntry(
+                fixture,
+                CertificateFactory.getInstance("X.509").generateCertificate(new ByteArrayInputStream(certificate)));
+        TrustManagerFactory trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagers.init(trustStore);
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, trustManagers.getTrustManagers(), null);
+        return context;
+    }
+
+    /** Returns the combined key and certificate PEM {@code name} from the test resources. */
+    static String fixture(String name) throws IOException {
+        try (InputStream in = ServerTests.class.getResourceAsStream("/tls/" + name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static HttpResponse<String> get(String uri) throws IOException, InterruptedException {
+        return CLIENT.send(HttpRequest.newBuilder().uri(URI.create(uri)).GET().build(), BodyHandlers.ofString());
+    }
+
     private void assertResponse(String uri, int statusCode, String expectedResponseText)
             throws IOException, InterruptedException {
         HttpResponse<String> helloWorldResult = CLIENT.send(
@@ -0,0 +1,124 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista;
+
+import com.markelliot.barista.endpoints.EndpointHandler;
+import com.markelliot.barista.endpoints.EndpointRuntime;
+import com.markelliot.barista.warmup.WarmUpRequest;
+import io.undertow.server.HttpHandler;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compares how long a JVM takes to start a server with and without the class data sharing archive
+ * recorded by a training run; run with {@code ./gradlew :barista:startupBenchmark}.
+ *
+ * <p>Each run launches a new JVM and times it from launch until the server has started, as seen
+ * by this process.
+ */
+public final class StartupBenchmark {
+    private static final String STARTED = "barista-benchmark-started";
+    private static final int RUNS = 10;
+
+    private StartupBenchmark() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 1 && args[0].equals("server")) {
+            server();
+            return;
+        }
+        String archive = Path.of(args[0]).toAbsolutePath().toString();
+        // discarded, so that both variants start with warm page caches
+        time(List.of());
+        long baseline = medianMillis(List.of());
+        long shared = medianMillis(List.of("-XX:SharedArchiveFile=" + archive, "-Xshare:on"));
+        System.out.printf(
+                "Median startup over %d runs: %d ms without the archive, %d ms with it (%d%% faster)%n",
+                RUNS, baseline, shared, 100 * (baseline - shared) / baseline);
+    }
+
+    private static void server() {
+        Server.Builder builder = Server.builder().port(8090).disableTls().endpoints(() -> Set.of(helloWorld()));
+        if (Boolean.getBoolean(Server.TRAINING_RUN_PROPERTY)) {
+            // load the classes that serve requests too; start stops the server again when training
+            builder.warmUpRequest(WarmUpRequest.of(HttpMethod.GET, "/hello-world"))
+                    .warmUpTimeout(Duration.ofSeconds(1));
+        }
+        Server server = builder.start();
+        System.out.println(STARTED);
+        server.stop();
+    }
+
+    private static long medianMillis(List<String> jvmArgs) throws IOException, InterruptedException {
+        List<Long> millis = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            millis.add(time(jvmArgs));
+        }
+        millis.sort(null);
+        return millis.get(RUNS / 2);
+    }
+
+    private static long time(List<String> jvmArgs) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.addAll(
+                List.of("-cp", System.getProperty("java.class.path"), StartupBenchmark.class.getName(), "server"));
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long elapsed = -1;
+        try (BufferedReader output =
+                new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (elapsed == -1 && line.equals(STARTED)) {
+                    elapsed = (System.nanoTime() - start) / 1_000_000;
+                }
+            }
+        }
+        if (process.waitFor() != 0 || elapsed == -1) {
+            throw new IllegalStateException("Benchmark server failed with command " + command);
+        }
+        return elapsed;
+    }
+
+    private static EndpointHandler helloWorld() {
+        return new EndpointHandler() {
+            @Override
+            public HttpMethod method() {
+                return HttpMethod.GET;
+            }
+
+            @Override
+            public String route() {
+                return "/hello-world";
+            }
+
+            @Override
+            public HttpHandler handler(EndpointRuntime runtime) {
+                return exchange -> runtime.handle(() -> "Hello World", exchange);
+            }
+        };
+    }
+}
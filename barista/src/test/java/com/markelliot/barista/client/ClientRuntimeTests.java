@@ -0,0 +1,160 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.markelliot.barista.HttpMethod;
+import com.markelliot.barista.SerDe;
+import com.markelliot.barista.Server;
+import com.markelliot.barista.TraceContext;
+import com.markelliot.barista.endpoints.EndpointHandler;
+import com.markelliot.barista.endpoints.EndpointRuntime;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+final class ClientRuntimeTests {
+    private static final ResponseType<List<String>> STRINGS = new ResponseType<>() {};
+    private static Server server;
+    private static ClientRuntime client;
+
+    @BeforeAll
+    static void beforeAll() {
+        server = Server.builder()
+                .port(0)
+                .disableTls()
+                .enableHttp2()
+                .endpoints(() -> Set.of(
+                        endpoint(
+                                "/trace",
+                                exchange -> List.of(EndpointRuntime.headerParameter("X-B3-TraceId", exchange)
+                                        .orElse("none"))),
+                        endpoint(
+                                "/parent",
+                                exchange -> List.of(EndpointRuntime.headerParameter("X-B3-SpanId", exchange)
+                                        .orElse("none"))),
+                        endpoint("/relay", exchange -> client.call(client.request(HttpMethod.GET, "/trace"), STRINGS)),
+                        endpoint(
+                                "/relay-parent",
+                                exchange -> List.of(
+                                        TraceContext.current().orElseThrow().spanId(),
+                                        client.call(client.request(HttpMethod.GET, "/parent"), STRINGS)
+                                                .get(0)))))
+                .start();
+        client = ClientRuntime.create(baseUri());
+    }
+
+    @AfterAll
+    static void afterAll() {
+        server.stop();
+    }
+
+    @Test
+    void testDeserializesGenericResponses() {
+        assertThat(client.call(client.request(HttpMethod.GET, "/trace"), STRINGS))
+                .containsExactly("none");
+    }
+
+    @Test
+    void testDeserializesWithConfiguredSerDe() {
+        AtomicInteger reads = new AtomicInteger();
+        SerDe json = new SerDe.ObjectMapperSerDe();
+        SerDe counting = new SerDe() {
+            @Override
+            public <T> ByteRepr serialize(T any) {
+                return json.serialize(any);
+            }
+
+            @Override
+            public <T> T deserialize(ByteRepr bytes, Class<T> objClass) {
+                return json.deserialize(bytes, objClass);
+            }
+
+            @Override
+            public <T> T deserialize(InputStream in, Type type) throws IOException {
+                reads.incrementAndGet();
+                return json.deserialize(in, type);
+            }
+
+            @Override
+            public String contentType() {
+                return json.contentType();
+            }
+        };
+        ClientRuntime custom = ClientRuntime.builder(baseUri()).serde(counting).build();
+        assertThat(custom.call(custom.request(HttpMethod.GET, "/trace"), STRINGS))
+                .containsExactly("none");
+        assertThat(reads).hasValue(1);
+    }
+
+    @Test
+    void testPropagatesTraceOfCallingEndpoint() throws IOException, InterruptedException {
+        String body = HttpClient.newHttpClient()
+                .send(
+                        HttpRequest.newBuilder(baseUri().resolve("/relay"))
+                                .header("X-B3-TraceId", "1234abcd")
+                                .header("X-B3-Sampled", "1")
+                                .build(),
+                        BodyHandlers.ofString())
+                .body();
+        assertThat(body).isEqualTo("[\"1234abcd\"]");
+    }
+
+    @Test
+    void testPropagatesSpanOfCallingEndpointAsParent() {
+        List<String> spans = client.call(client.request(HttpMethod.GET, "/relay-parent"), STRINGS);
+        // the downstream request's parent is the span of the upstream request
+        assertThat(spans.get(1)).isNotEqualTo("none").isEqualTo(spans.get(0));
+    }
+
+    private static URI baseUri() {
+        return URI.create("http://localhost:" + server.addresses().get(0).getPort() + "/");
+    }
+
+    private static EndpointHandler endpoint(String route, Function<HttpServerExchange, Object> fn) {
+        return new EndpointHandler() {
+            @Override
+            public HttpMethod method() {
+                return HttpMethod.GET;
+            }
+
+            @Override
+            public String route() {
+                return route;
+            }
+
+            @Override
+            public HttpHandler handler(EndpointRuntime runtime) {
+                return exchange -> runtime.handle(() -> fn.apply(exchange), exchange);
+            }
+        };
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.endpoints;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.markelliot.barista.RequestTimings;
+import com.markelliot.barista.SerDe;
+import com.markelliot.barista.authz.Authz;
+import io.undertow.server.HttpServerExchange;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+final class EndpointRuntimeTests {
+    private static volatile byte[] sink;
+
+    @Test
+    void testAccountsResourcesOfEndpointMethods() {
+        EndpointRuntime runtime = new EndpointRuntime(
+                new SerDe.ObjectMapperSerDe(), Authz.denyAll(), true, Optional.empty(), ExceptionStatuses.defaults());
+        HttpServerExchange exchange = new HttpServerExchange(null);
+        runtime.handle(
+                () -> {
+                    sink = new byte[1 << 20];
+                },
+                exchange);
+
+        RequestTimings timings = RequestTimings.of(exchange);
+        assertThat(timings.allocatedBytes()).isGreaterThanOrEqualTo(1 << 20);
+        assertThat(timings.cpuNanos()).isNotNegative();
+    }
+
+    @Test
+    void testSkipsResourceAccountingByDefault() {
+        EndpointRuntime runtime = new EndpointRuntime(new SerDe.ObjectMapperSerDe(), Authz.denyAll());
+        HttpServerExchange exchange = new HttpServerExchange(null);
+        runtime.handle(
+                () -> {
+                    sink = new byte[1];
+                },
+                exchange);
+
+        assertThat(RequestTimings.of(exchange).allocatedBytes()).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.endpoints;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+final class ErrorLogTests {
+    @Test
+    void testLogsEachSignatureOncePerInterval() {
+        ErrorLog errorLog = new ErrorLog(100, 0);
+        RuntimeException first = fail("first");
+        IllegalStateException second = new IllegalStateException("second");
+
+        assertThat(errorLog.permit(first, 0)).isZero();
+        assertThat(errorLog.permit(fail("first again"), 50)).isEqualTo(-1);
+        assertThat(errorLog.permit(first, 99)).isEqualTo(-1);
+        assertThat(errorLog.permit(second, 99)).isZero();
+        assertThat(errorLog.permit(first, 100)).isEqualTo(2);
+        assertThat(errorLog.permit(first, 150)).isEqualTo(-1);
+        assertThat(errorLog.permit(first, 250)).isEqualTo(1);
+    }
+
+    private static RuntimeException fail(String message) {
+        return new RuntimeException(message);
+    }
+
+    @Test
+    void testErrorIdsAreUuids() {
+        String errorId = ErrorLog.newErrorId();
+        assertThat(UUID.fromString(errorId).toString()).isEqualTo(errorId);
+        assertThat(ErrorLog.newErrorId()).isNotEqualTo(errorId);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.endpoints;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+
+final class ExceptionStatusesTests {
+    @Test
+    void testMapsExceptionsByNearestRegisteredClass() {
+        ExceptionStatuses statuses = ExceptionStatuses.builder()
+                .status(IllegalArgumentException.class, 400)
+                .status(NumberFormatException.class, 422)
+                .status(NoSuchElementException.class, 404)
+                .build();
+
+        assertThat(statuses.statusCode(new IllegalArgumentException())).isEqualTo(400);
+        assertThat(statuses.statusCode(new NumberFormatException())).isEqualTo(422);
+        assertThat(statuses.statusCode(new InputMismatchException())).isEqualTo(404);
+        assertThat(statuses.statusCode(new UncheckedIOException(new IOException())))
+                .isEqualTo(500);
+    }
+
+    @Test
+    void testMapsMalformedBodiesToBadRequest() {
+        assertThat(ExceptionStatuses.defaults().statusCode(new MalformedBodyException("bad", null)))
+                .isEqualTo(400);
+        assertThat(ExceptionStatuses.defaults().statusCode(new IllegalStateException()))
+                .isEqualTo(500);
+    }
+}
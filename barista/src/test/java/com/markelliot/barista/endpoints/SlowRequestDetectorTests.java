@@ -0,0 +1,48 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.endpoints;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Methods;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+final class SlowRequestDetectorTests {
+    @Test
+    void testSamplesOnlySlowCalls() {
+        try (SlowRequestDetector detector = new SlowRequestDetector(Duration.ofMillis(50))) {
+            HttpServerExchange exchange =
+                    new HttpServerExchange(null).setRequestMethod(Methods.GET).setRelativePath("/slow");
+            // the call is fast enough to finish before the watchdog's first scan
+            detector.track(exchange).close();
+            Uninterruptibles.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
+            assertThat(detector.slowRequests()).isZero();
+
+            SlowRequestDetector.Scope scope = detector.track(exchange);
+            try {
+                Uninterruptibles.sleepUninterruptibly(250, TimeUnit.MILLISECONDS);
+            } finally {
+                scope.close();
+            }
+            assertThat(detector.slowRequests()).isEqualTo(1);
+        }
+    }
+}
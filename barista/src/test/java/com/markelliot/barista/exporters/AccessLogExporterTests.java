@@ -0,0 +1,54 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.exporters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class AccessLogExporterTests {
+    @Test
+    void testWritesOneJsonObjectPerRequest(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("access.log");
+        try (AccessLogExporter exporter = AccessLogExporter.create(file)) {
+            exporter.record("GET", "/items/{id}", 200, -1, 512, 1_500_000, "user-1", "abc");
+            exporter.record("POST", null, 404, 12, 0, 20_000, null, null);
+            assertThat(exporter.droppedRecords()).isZero();
+        }
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0))
+                .matches("\\{\"time\":\"\\d{4}-\\d{2}-\\d{2}T[^\"]+Z\",.*")
+                .endsWith(",\"method\":\"GET\",\"route\":\"/items/{id}\",\"status\":200,\"responseBytes\":512,"
+                        + "\"durationMicros\":1500,\"subject\":\"user-1\",\"traceId\":\"abc\"}");
+        assertThat(lines.get(1))
+                .endsWith(",\"method\":\"POST\",\"status\":404,\"requestBytes\":12,\"responseBytes\":0,"
+                        + "\"durationMicros\":20}");
+    }
+
+    @Test
+    void testEscapesStrings() {
+        StringBuilder line = new StringBuilder();
+        AccessLogExporter.string(line, "subject", "a\"b\\c\nd");
+        assertThat(line.toString()).isEqualTo(",\"subject\":\"a\\\"b\\\\c\\u000ad\"");
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.exporters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+final class RingBufferTests {
+    @Test
+    void testClaimFailsWhenFullAndSucceedsOnceDrained() {
+        AtomicInteger slotIds = new AtomicInteger();
+        RingBuffer<int[]> buffer = new RingBuffer<>(4, () -> new int[] {slotIds.getAndIncrement(), 0});
+        for (int i = 0; i < 4; i++) {
+            publish(buffer, i);
+        }
+        assertThat(buffer.claim()).isEqualTo(-1);
+
+        List<Integer> values = new ArrayList<>();
+        assertThat(buffer.drain(slot -> values.add(slot[1]), 2)).isEqualTo(2);
+        publish(buffer, 4);
+        publish(buffer, 5);
+        assertThat(buffer.claim()).isEqualTo(-1);
+
+        assertThat(buffer.drain(slot -> values.add(slot[1]), 10)).isEqualTo(4);
+        assertThat(values).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(slotIds).hasValue(4);
+    }
+
+    @Test
+    void testDrainStopsAtFirstUnpublishedSequence() {
+        RingBuffer<int[]> buffer = new RingBuffer<>(4, () -> new int[1]);
+        long first = buffer.claim();
+        long second = buffer.claim();
+        buffer.get(second)[0] = 2;
+        buffer.publish(second);
+        assertThat(buffer.drain(slot -> {}, 10)).isZero();
+
+        buffer.get(first)[0] = 1;
+        buffer.publish(first);
+        List<Integer> values = new ArrayList<>();
+        assertThat(buffer.drain(slot -> values.add(slot[0]), 10)).isEqualTo(2);
+        assertThat(values).containsExactly(1, 2);
+    }
+
+    private static void publish(RingBuffer<int[]> buffer, int value) {
+        long sequence = buffer.claim();
+        assertThat(sequence).isNotNegative();
+        buffer.get(sequence)[1] = value;
+        buffer.publish(sequence);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.exporters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class RotatingFileTests {
+    @Test
+    void testRotatesOnceFull(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("spans.log");
+        try (RotatingFile file = new RotatingFile(path, 10, 2)) {
+            for (int i = 0; i < 4; i++) {
+                byte[] line = ("line-" + i + "\n").getBytes(StandardCharsets.UTF_8);
+                file.write(line, line.length);
+            }
+        }
+        assertThat(Files.readAllLines(path)).isEmpty();
+        assertThat(Files.readAllLines(dir.resolve("spans.log.1"))).containsExactly("line-2", "line-3");
+        assertThat(Files.readAllLines(dir.resolve("spans.log.2"))).containsExactly("line-0", "line-1");
+        assertThat(dir.resolve("spans.log.3")).doesNotExist();
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.exporters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.markelliot.barista.tracing.CompletedSpan;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class SpanExporterTests {
+    @Test
+    void testWritesOneLinePerSpan(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("spans.log");
+        try (SpanExporter exporter = SpanExporter.create(file)) {
+            exporter.export(new CompletedSpan("t1", "s1", Optional.empty(), "GET /hello", 1_000_000L, 2_500_000L));
+            exporter.export(new CompletedSpan("t1", "s2", Optional.of("s1"), "db query", 1_000_500L, 999L));
+        }
+        assertThat(Files.readAllLines(file))
+                .containsExactly(
+                        "span traceId=t1 spanId=s1 start=1000000 duration=2500us op=GET /hello",
+                        "span traceId=t1 spanId=s2 parentId=s1 start=1000500 duration=0us op=db query");
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.handlers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.markelliot.barista.HttpMethod;
+import com.markelliot.barista.endpoints.EndpointHandler;
+import com.markelliot.barista.endpoints.EndpointRuntime;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+final class RouteTableTests {
+    @Test
+    void testNumbersRoutesDensely() throws Exception {
+        RouteTable table = RouteTable.of(List.of(
+                endpoint(HttpMethod.GET, "/a/{id}"),
+                endpoint(HttpMethod.PUT, "/a/{id}"),
+                endpoint(HttpMethod.GET, "b")));
+        assertThat(table.routes())
+                .extracting(RouteTable.Route::toString)
+                .containsExactly("GET /a/{id}", "PUT /a/{id}", "GET /b");
+        assertThat(table.routes()).extracting(RouteTable.Route::index).containsExactly(0, 1, 2);
+
+        HttpServerExchange exchange = new HttpServerExchange(null);
+        assertThat(RouteTable.index(exchange)).isEqualTo(-1);
+        RouteTable.handler(table.routes().get(2), null, handler -> handler).handleRequest(exchange);
+        assertThat(RouteTable.index(exchange)).isEqualTo(2);
+    }
+
+    @Test
+    void testRejectsConflictingRoutes() {
+        assertThatThrownBy(() -> RouteTable.of(List.of(
+                        endpoint(HttpMethod.GET, "/a/{x}"),
+                        endpoint(HttpMethod.GET, "/a/{y}"),
+                        endpoint(HttpMethod.GET, "/b"),
+                        endpoint(HttpMethod.GET, "b"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("GET /a/{y} conflicts with GET /a/{x}")
+                .hasMessageContaining("GET /b conflicts with GET /b");
+    }
+
+    @Test
+    void testRejectsMalformedRoutes() {
+        assertThatThrownBy(() -> RouteTable.of(List.of(
+                        endpoint(HttpMethod.GET, "/a/{id"),
+                        endpoint(HttpMethod.GET, "/b/{}"),
+                        endpoint(HttpMethod.GET, "/c/{id}/{id}"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("/a/{id")
+                .hasMessageContaining("/b/{}")
+                .hasMessageContaining("/c/{id}/{id}");
+    }
+
+    private static EndpointHandler endpoint(HttpMethod method, String route) {
+        return new EndpointHandler() {
+            @Override
+            public HttpMethod method() {
+                return method;
+            }
+
+            @Override
+            public String route() {
+                return route;
+            }
+
+            @Override
+            public HttpHandler handler(EndpointRuntime runtime) {
+                return exchange -> {};
+            }
+        };
+    }
+}
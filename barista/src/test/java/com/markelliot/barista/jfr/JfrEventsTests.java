@@ -0,0 +1,148 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.markelliot.barista.HttpMethod;
+import com.markelliot.barista.Server;
+import com.markelliot.barista.endpoints.EndpointHandler;
+import com.markelliot.barista.endpoints.EndpointRuntime;
+import io.undertow.server.HttpHandler;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+
+final class JfrEventsTests {
+    @Test
+    void testEmitsRequestLifecycleEvents() throws Exception {
+        Map<String, List<RecordedEvent>> events = new ConcurrentHashMap<>();
+        CountDownLatch requestsRecorded = new CountDownLatch(2);
+        Server server = Server.builder()
+                .port(0)
+                .disableTls()
+                .allowAllOrigins()
+                .endpoints(() -> Set.of(
+                        endpoint("/items/{id}", runtime -> exchange -> runtime.handle(() -> "item", exchange)),
+                        endpoint("/secure", runtime -> exchange -> {
+                            boolean authorized = runtime.verifyAuth(exchange).isOk();
+                            runtime.handle(() -> authorized, exchange);
+                        })))
+                .start();
+        try (RecordingStream stream = new RecordingStream()) {
+            for (String name : Set.of("Request", "Dispatch", "Auth", "Handler", "Response")) {
+                String eventName = "com.markelliot.barista." + name;
+                stream.enable(eventName);
+                stream.onEvent(eventName, event -> {
+                    events.computeIfAbsent(name, unused -> new CopyOnWriteArrayList<>())
+                            .add(event);
+                    if (name.equals("Request")) {
+                        requestsRecorded.countDown();
+                    }
+                });
+            }
+            stream.startAsync();
+
+            int port = server.addresses().get(0).getPort();
+            HttpClient client = HttpClient.newHttpClient();
+            client.send(
+                    HttpRequest.newBuilder()
+                            .uri(URI.create("http://localhost:" + port + "/items/1"))
+                            .header("origin", "localhost")
+                            .header("X-B3-TraceId", "abc123")
+                            .build(),
+                    BodyHandlers.ofString());
+            client.send(
+                    HttpRequest.newBuilder()
+                            .uri(URI.create("http://localhost:" + port + "/secure"))
+                            .header("origin", "localhost")
+                            .header("X-B3-TraceId", "def456")
+                            .header("Authorization", "Bearer token")
+                            .build(),
+                    BodyHandlers.ofString());
+            assertThat(requestsRecorded.await(30, TimeUnit.SECONDS)).isTrue();
+            // every other event of both requests was committed before their Request events, so is
+            // delivered no later than the flush that delivered those
+            CountDownLatch flushed = new CountDownLatch(1);
+            stream.onFlush(flushed::countDown);
+            assertThat(flushed.await(30, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            server.stop();
+        }
+
+        assertThat(events.get("Request")).hasSize(2);
+        assertThat(events.get("Dispatch")).hasSize(2);
+        assertThat(events.get("Handler")).hasSize(2);
+        assertThat(events.get("Response")).hasSize(2);
+        assertThat(events.get("Auth")).hasSize(1);
+
+        RecordedEvent request = byTraceId(events.get("Request"), "abc123");
+        assertThat(request.getString("route")).isEqualTo("/items/{id}");
+        assertThat(request.getString("path")).isEqualTo("/items/1");
+        assertThat(request.getInt("status")).isEqualTo(200);
+        assertThat(byTraceId(events.get("Handler"), "abc123").getBoolean("failed"))
+                .isFalse();
+        assertThat(byTraceId(events.get("Response"), "abc123").getInt("status")).isEqualTo(200);
+        assertThat(events.get("Dispatch"))
+                .extracting(event -> event.getString("path"))
+                .containsExactlyInAnyOrder("/items/1", "/secure");
+
+        RecordedEvent auth = events.get("Auth").get(0);
+        assertThat(auth.getString("route")).isEqualTo("/secure");
+        assertThat(auth.getString("traceId")).isEqualTo("def456");
+        // the server denies every token by default
+        assertThat(auth.getBoolean("authorized")).isFalse();
+    }
+
+    private static RecordedEvent byTraceId(List<RecordedEvent> events, String traceId) {
+        return events.stream()
+                .filter(event -> traceId.equals(event.getString("traceId")))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static EndpointHandler endpoint(String route, Function<EndpointRuntime, HttpHandler> handler) {
+        return new EndpointHandler() {
+            @Override
+            public HttpMethod method() {
+                return HttpMethod.GET;
+            }
+
+            @Override
+            public String route() {
+                return route;
+            }
+
+            @Override
+            public HttpHandler handler(EndpointRuntime runtime) {
+                return handler.apply(runtime);
+            }
+        };
+    }
+}
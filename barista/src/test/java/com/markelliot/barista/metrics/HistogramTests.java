@@ -0,0 +1,93 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+final class HistogramTests {
+    @Test
+    void testBucketsAreContiguousAndPrecise() {
+        for (long value = 0; value < 1 << 20; value++) {
+            int index = Histogram.index(value);
+            assertThat(Histogram.upperBound(index)).isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(Histogram.upperBound(index - 1)).isLessThan(value);
+            }
+            assertThat(Histogram.upperBound(index) - value).isLessThanOrEqualTo(value / 16);
+        }
+    }
+
+    @Test
+    void testQuantiles() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+        assertThat(histogram.count()).isEqualTo(10_000);
+        assertThat(histogram.sum()).isEqualTo(50_005_000);
+        assertThat(histogram.max()).isEqualTo(10_000);
+        assertThat(histogram.valueAtQuantile(0.5)).isBetween(5_000L, 5_000L * 17 / 16);
+        assertThat(histogram.valueAtQuantile(0.99)).isBetween(9_900L, 10_000L);
+        assertThat(histogram.valueAtQuantile(1.0)).isEqualTo(10_000);
+        assertThat(histogram.countAtOrBelow(31)).isEqualTo(31);
+    }
+
+    @Test
+    void testCountsOnlyValuesKnownToBeAtOrBelow() {
+        long boundary = 100_000;
+        long bucketEnd = Histogram.upperBound(Histogram.index(boundary));
+        assertThat(bucketEnd).isGreaterThan(boundary);
+
+        Histogram histogram = new Histogram();
+        histogram.record(bucketEnd);
+        assertThat(histogram.countAtOrBelow(boundary)).isZero();
+        assertThat(histogram.countAtOrBelow(bucketEnd)).isEqualTo(1);
+    }
+
+    @Test
+    void testClampsLargeValues() {
+        Histogram histogram = new Histogram();
+        histogram.record(Long.MAX_VALUE);
+        assertThat(histogram.max()).isEqualTo(Histogram.MAX_VALUE);
+        assertThat(histogram.countAtOrBelow(Histogram.MAX_VALUE)).isEqualTo(1);
+    }
+
+    @Test
+    void testRecorderReturnsIntervals() throws InterruptedException {
+        Recorder recorder = new Recorder();
+        Thread[] writers = new Thread[4];
+        for (int i = 0; i < writers.length; i++) {
+            writers[i] = new Thread(() -> {
+                for (int j = 0; j < 100_000; j++) {
+                    recorder.record(j);
+                }
+            });
+            writers[i].start();
+        }
+        Histogram total = new Histogram();
+        for (Thread writer : writers) {
+            while (writer.isAlive()) {
+                total.add(recorder.interval());
+            }
+        }
+        total.add(recorder.interval());
+        assertThat(total.count()).isEqualTo(400_000);
+        assertThat(recorder.interval().count()).isZero();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.xnio.OptionMap;
+import org.xnio.Options;
+import org.xnio.Xnio;
+import org.xnio.XnioWorker;
+
+final class IoThreadMonitorTests {
+    private final XnioWorker worker;
+
+    IoThreadMonitorTests() throws Exception {
+        worker = Xnio.getInstance().createWorker(OptionMap.create(Options.WORKER_IO_THREADS, 1));
+    }
+
+    @AfterEach
+    void afterEach() {
+        worker.shutdownNow();
+    }
+
+    @Test
+    void testRecordsLagOfBlockedIoThread() throws InterruptedException {
+        try (IoThreadMonitor monitor = new IoThreadMonitor(worker, Optional.of(Duration.ofMillis(50)))) {
+            CountDownLatch unblocked = new CountDownLatch(1);
+            worker.getIoThread(0).execute(() -> {
+                Uninterruptibles.sleepUninterruptibly(500, TimeUnit.MILLISECONDS);
+                unblocked.countDown();
+            });
+            assertThat(unblocked.await(5, TimeUnit.SECONDS)).isTrue();
+            // let the overdue probe run
+            Thread.sleep(200);
+
+            PrometheusWriter writer = new PrometheusWriter();
+            monitor.collect(writer);
+            String scrape = writer.toString();
+            assertThat(bucket(scrape, "0.25")).isLessThan(bucket(scrape, "+Inf"));
+        }
+    }
+
+    private static long bucket(String scrape, String le) {
+        Matcher matcher = Pattern.compile(
+                        "barista_io_thread_lag_seconds_bucket\\{le=\"" + Pattern.quote(le) + "\"} (\\d+)")
+                .matcher(scrape);
+        assertThat(matcher.find()).isTrue();
+        return Long.parseLong(matcher.group(1));
+    }
+}
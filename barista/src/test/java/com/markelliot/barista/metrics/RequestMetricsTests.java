@@ -0,0 +1,148 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.markelliot.barista.HttpMethod;
+import com.markelliot.barista.endpoints.EndpointHandler;
+import com.markelliot.barista.endpoints.EndpointRuntime;
+import com.markelliot.barista.handlers.EndpointHandlerBuilder;
+import com.markelliot.barista.handlers.RouteTable;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+final class RequestMetricsTests {
+    private static final RouteTable ROUTES = RouteTable.of(List.of(endpoint(HttpMethod.GET, "/items/{id}")));
+    // marks requests with their route, as the server's router does
+    private static final HttpHandler ROUTER =
+            new EndpointHandlerBuilder(null, Optional.empty()).build(ROUTES, delegate -> exchange -> {});
+
+    private final RequestMetrics metrics = RequestMetrics.create(ROUTES);
+    private final MetricsRegistry registry = new MetricsRegistry().register(metrics);
+
+    @Test
+    void testRecordsLatencyPerRouteAndStatusClass() throws Exception {
+        complete(routed("/items/1", 200), TimeUnit.MILLISECONDS.toNanos(3));
+        complete(routed("/items/1", 204), TimeUnit.MILLISECONDS.toNanos(30));
+        complete(routed("/items/1", 503), TimeUnit.SECONDS.toNanos(2));
+
+        String scrape = registry.scrape();
+        String ok = "method=\"GET\",route=\"/items/{id}\",status=\"2xx\"";
+        assertThat(scrape)
+                .contains("barista_http_request_duration_seconds_bucket{" + ok + ",le=\"0.0025\"} 0\n")
+                .contains("barista_http_request_duration_seconds_bucket{" + ok + ",le=\"0.005\"} 1\n")
+                .contains("barista_http_request_duration_seconds_bucket{" + ok + ",le=\"0.05\"} 2\n")
+                .contains("barista_http_request_duration_seconds_count{" + ok + "} 2\n")
+                .contains("barista_http_request_duration_seconds_sum{" + ok + "} 0.033\n")
+                .contains("barista_http_request_duration_max_seconds{" + ok + "} 0.03\n")
+                .contains("barista_http_request_duration_seconds_count{method=\"GET\",route=\"/items/{id}\","
+                        + "status=\"5xx\"} 1\n")
+                .doesNotContain("status=\"4xx\"");
+    }
+
+    @Test
+    void testHistogramsAccumulateAcrossScrapes() throws Exception {
+        complete(routed("/items/1", 200), 1_000);
+        registry.scrape();
+        complete(routed("/items/1", 200), 2_000);
+        assertThat(registry.scrape())
+                .contains("barista_http_request_duration_seconds_count{method=\"GET\",route=\"/items/{id}\","
+                        + "status=\"2xx\"} 2\n")
+                .contains("barista_http_request_duration_max_seconds{method=\"GET\",route=\"/items/{id}\","
+                        + "status=\"2xx\"} 2.0E-6\n");
+    }
+
+    @Test
+    void testRecordsResourcesPerRoute() throws Exception {
+        HttpServerExchange exchange = routed("/items/1", 200);
+        metrics.started(exchange);
+        metrics.completed(exchange, 1_000, TimeUnit.MILLISECONDS.toNanos(2), 5_000);
+        assertThat(registry.scrape())
+                .contains("barista_endpoint_cpu_seconds_count{method=\"GET\",route=\"/items/{id}\"} 1\n")
+                .contains("barista_endpoint_allocated_bytes_bucket{method=\"GET\",route=\"/items/{id}\","
+                        + "le=\"4096.0\"} 0\n")
+                .contains("barista_endpoint_allocated_bytes_bucket{method=\"GET\",route=\"/items/{id}\","
+                        + "le=\"16384.0\"} 1\n")
+                .doesNotContain("barista_endpoint_cpu_seconds_count{method=\"*\",route=\"unmatched\"}")
+                .doesNotContain("barista_endpoint_allocated_bytes_count{method=\"*\",route=\"unmatched\"}");
+    }
+
+    @Test
+    void testAttributesUnroutedRequestsToUnmatched() throws Exception {
+        HttpServerExchange exchange = new HttpServerExchange(null)
+                .setRequestMethod(HttpMethod.GET.method())
+                .setStatusCode(404);
+        complete(exchange, 1_000);
+        assertThat(registry.scrape())
+                .contains("barista_http_request_duration_seconds_count{method=\"*\",route=\"unmatched\","
+                        + "status=\"4xx\"} 1\n");
+    }
+
+    @Test
+    void testTracksRequestsInFlightPerRoute() throws Exception {
+        String items = "barista_http_requests_in_flight{method=\"GET\",route=\"/items/{id}\"} ";
+        String unmatched = "barista_http_requests_in_flight{method=\"*\",route=\"unmatched\"} ";
+        HttpServerExchange exchange = routed("/items/1", 200);
+        metrics.started(exchange);
+        assertThat(registry.scrape()).contains(unmatched + "1\n").contains(items + "0\n");
+
+        metrics.routed(exchange);
+        assertThat(registry.scrape()).contains(unmatched + "0\n").contains(items + "1\n");
+
+        metrics.completed(exchange, 1_000);
+        assertThat(registry.scrape()).contains(unmatched + "0\n").contains(items + "0\n");
+        assertThat(metrics.inFlight()).isZero();
+    }
+
+    private void complete(HttpServerExchange exchange, long nanos) {
+        metrics.started(exchange);
+        metrics.routed(exchange);
+        metrics.completed(exchange, nanos);
+    }
+
+    private static HttpServerExchange routed(String path, int status) throws Exception {
+        HttpServerExchange exchange = new HttpServerExchange(null)
+                .setRequestMethod(HttpMethod.GET.method())
+                .setRelativePath(path);
+        ROUTER.handleRequest(exchange);
+        return exchange.setStatusCode(status);
+    }
+
+    private static EndpointHandler endpoint(HttpMethod method, String route) {
+        return new EndpointHandler() {
+            @Override
+            public HttpMethod method() {
+                return method;
+            }
+
+            @Override
+            public String route() {
+                return route;
+            }
+
+            @Override
+            public HttpHandler handler(EndpointRuntime runtime) {
+                return exchange -> {};
+            }
+        };
+    }
+}
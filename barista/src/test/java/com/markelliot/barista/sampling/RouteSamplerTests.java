@@ -0,0 +1,111 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.sampling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.markelliot.barista.HttpMethod;
+import com.markelliot.barista.endpoints.EndpointHandler;
+import com.markelliot.barista.endpoints.EndpointRuntime;
+import com.markelliot.barista.handlers.EndpointHandlerBuilder;
+import com.markelliot.barista.handlers.RouteTable;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+final class RouteSamplerTests {
+    private static final RouteTable ROUTES =
+            RouteTable.of(List.of(endpoint(HttpMethod.GET, "/hot/{id}"), endpoint(HttpMethod.GET, "/cold")));
+
+    @Test
+    void testUsesPerRouteRates() throws Exception {
+        RouteSampler sampler = RouteSampler.builder()
+                .defaultRate(0.0)
+                .rate(HttpMethod.GET, "/hot/{id}", 1.0)
+                .build(ROUTES);
+        assertThat(count(sampler, HttpMethod.GET, "/hot/123", 100)).isEqualTo(100);
+        assertThat(count(sampler, HttpMethod.GET, "/cold", 100)).isZero();
+        assertThat(count(sampler, HttpMethod.PUT, "/hot/123", 100)).isZero();
+    }
+
+    @Test
+    void testCapsTracesPerSecond() throws Exception {
+        RouteSampler sampler =
+                RouteSampler.builder().defaultRate(1.0).maxTracesPerSecond(5).build(ROUTES);
+        // the bucket starts with one second's worth of tokens
+        assertThat(count(sampler, HttpMethod.GET, "/hot/123", 1_000)).isBetween(5, 6);
+    }
+
+    @Test
+    void testGuaranteesMinimumPerRoute() throws Exception {
+        RouteSampler sampler = RouteSampler.builder()
+                .defaultRate(0.0)
+                .minimumInterval(Duration.ofHours(1))
+                .build(ROUTES);
+        assertThat(count(sampler, HttpMethod.GET, "/hot/123", 100)).isEqualTo(1);
+        assertThat(count(sampler, HttpMethod.GET, "/cold", 100)).isEqualTo(1);
+    }
+
+    @Test
+    void testRejectsRatesForUnknownRoutes() {
+        assertThatThrownBy(() -> RouteSampler.builder()
+                        .rate(HttpMethod.GET, "/missing", 1.0)
+                        .build(ROUTES))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("GET /missing");
+    }
+
+    /** Routes {@code requests} requests as the server does and counts those {@code sampler} samples. */
+    private static int count(Sampler sampler, HttpMethod method, String path, int requests) throws Exception {
+        AtomicInteger sampled = new AtomicInteger();
+        HttpHandler router = new EndpointHandlerBuilder(null, Optional.empty()).build(ROUTES, delegate -> exchange -> {
+            if (sampler.sample(exchange)) {
+                sampled.incrementAndGet();
+            }
+        });
+        for (int i = 0; i < requests; i++) {
+            router.handleRequest(new HttpServerExchange(null)
+                    .setRequestMethod(method.method())
+                    .setRelativePath(path));
+        }
+        return sampled.get();
+    }
+
+    private static EndpointHandler endpoint(HttpMethod method, String route) {
+        return new EndpointHandler() {
+            @Override
+            public HttpMethod method() {
+                return method;
+            }
+
+            @Override
+            public String route() {
+                return route;
+            }
+
+            @Override
+            public HttpHandler handler(EndpointRuntime runtime) {
+                return exchange -> {};
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.sampling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.markelliot.barista.RequestTimings;
+import com.markelliot.barista.tracing.CompletedSpan;
+import io.undertow.server.HttpServerExchange;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+final class TailSamplerTests {
+    private final List<String> exported = new ArrayList<>();
+    private final List<RequestTimings> exportedTimings = new ArrayList<>();
+    private final TailSampler sampler =
+            new TailSampler(Duration.ofHours(1), span -> exported.add(span.opName()), exportedTimings::add);
+
+    @Test
+    void testDiscardsFastSuccessfulUnsampledRequests() {
+        runRequest(false, 200, "fast");
+        assertThat(exported).isEmpty();
+        assertThat(exportedTimings).isEmpty();
+        assertThat(sampler.discardedTraces()).isEqualTo(1);
+    }
+
+    @Test
+    void testExportsFailedAndHeadSampledRequests() {
+        runRequest(false, 503, "failed");
+        runRequest(true, 200, "sampled");
+        assertThat(exported).containsExactly("failed-child", "failed-root", "sampled-child", "sampled-root");
+        assertThat(exportedTimings).hasSize(2);
+        assertThat(sampler.exportedTraces()).isEqualTo(2);
+    }
+
+    @Test
+    void testExportsSlowRequests() {
+        TailSampler slowSampler =
+                new TailSampler(Duration.ZERO, span -> exported.add(span.opName()), exportedTimings::add);
+        TailSampler.Buffer buffer = slowSampler.start("slow", false);
+        slowSampler.accept(span("slow", "slow"));
+        buffer.complete(200, timings());
+        assertThat(exported).containsExactly("slow");
+    }
+
+    @Test
+    void testBuffersSpansFinishedOnOtherThreads() throws InterruptedException {
+        TailSampler.Buffer buffer = sampler.start("async", true);
+        Thread worker = new Thread(() -> sampler.accept(span("async", "async-child")));
+        worker.start();
+        worker.join();
+        sampler.accept(span("async", "async-root"));
+        buffer.complete(200, timings());
+        assertThat(exported).containsExactly("async-child", "async-root");
+    }
+
+    @Test
+    void testDropsSpansWithoutRequestInFlight() {
+        TailSampler.Buffer buffer = sampler.start("trace", true);
+        sampler.accept(span("other", "unknown"));
+        buffer.complete(200, timings());
+        sampler.accept(span("trace", "late"));
+        assertThat(exported).isEmpty();
+        assertThat(sampler.droppedSpans()).isEqualTo(2);
+    }
+
+    private void runRequest(boolean headSampled, int status, String name) {
+        TailSampler.Buffer buffer = sampler.start(name, headSampled);
+        sampler.accept(span(name, name + "-child"));
+        sampler.accept(span(name, name + "-root"));
+        buffer.complete(status, timings());
+    }
+
+    private static CompletedSpan span(String traceId, String opName) {
+        return new CompletedSpan(traceId, opName, Optional.empty(), opName, 0, 0);
+    }
+
+    private static RequestTimings timings() {
+        return RequestTimings.of(new HttpServerExchange(null));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.tls;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
+
+/**
+ * Compares full TLS handshake throughput for RSA and ECDSA server keys.
+ *
+ * <p>Handshakes run in memory between a client and server {@link SSLEngine}, so results reflect
+ * the CPU cost of the handshake and not network latency. Run with {@code ./gradlew
+ * :barista:handshakeBenchmark}; it is not part of the test suite.
+ */
+public final class HandshakeBenchmark {
+    private static final int WARMUP_HANDSHAKES = 500;
+    private static final int MEASURED_HANDSHAKES = 2_000;
+
+    private HandshakeBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        SSLContext client = Handshakes.trustingClient();
+
+        for (String fixture : new String[] {"rsa-pkcs1.pem", "ec-sec1.pem"}) {
+            SSLContext server = serverContext(fixture);
+            for (int i = 0; i < WARMUP_HANDSHAKES; i++) {
+                handshake(client, server);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_HANDSHAKES; i++) {
+                handshake(client, server);
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf(
+                    "%-16s %8.1f handshakes/s (%6.1f us/handshake)%n",
+                    fixture,
+                    MEASURED_HANDSHAKES / (elapsed / (double) TimeUnit.SECONDS.toNanos(1)),
+                    elapsed / (double) MEASURED_HANDSHAKES / 1_000);
+        }
+    }
+
+    private static SSLContext serverContext(String fixture) throws Exception {
+        Path securityDir = Files.createTempDirectory("handshake-benchmark");
+        Files.writeString(securityDir.resolve("key.pem"), TransportLayerSecurityTests.fixture(fixture));
+        SSLContext server = SSLContext.getInstance("TLS");
+        server.init(new KeyManager[] {TransportLayerSecurity.createKeyManager(securityDir)}, null, null);
+        return server;
+    }
+
+    /** Runs a full handshake; engines are created without peer information so sessions never resume. */
+    private static void handshake(SSLContext client, SSLContext server) throws SSLException {
+        Handshakes.handshake(client.createSSLEngine(), server.createSSLEngine());
+    }
+}
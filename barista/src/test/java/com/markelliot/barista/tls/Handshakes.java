@@ -0,0 +1,100 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.tls;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+/** Runs TLS handshakes in memory between a client and server {@link SSLEngine}. */
+final class Handshakes {
+    private Handshakes() {}
+
+    /**
+     * Returns a client context that trusts any server certificate and authenticates with {@code
+     * keyManagers}, if any.
+     */
+    static SSLContext trustingClient(KeyManager... keyManagers) throws Exception {
+        SSLContext client = SSLContext.getInstance("TLS");
+        client.init(keyManagers, new TrustManager[] {new TrustAllTrustManager()}, new SecureRandom());
+        return client;
+    }
+
+    /** Runs a handshake between the given engines, which must not yet have begun handshaking. */
+    static void handshake(SSLEngine client, SSLEngine server) throws SSLException {
+        client.setUseClientMode(true);
+        server.setUseClientMode(false);
+
+        int packetSize = client.getSession().getPacketBufferSize();
+        ByteBuffer clientToServer = ByteBuffer.allocate(packetSize);
+        ByteBuffer serverToClient = ByteBuffer.allocate(packetSize);
+        ByteBuffer empty = ByteBuffer.allocate(0);
+        ByteBuffer sink = ByteBuffer.allocate(client.getSession().getApplicationBufferSize());
+
+        client.beginHandshake();
+        server.beginHandshake();
+        while (!isDone(client) || !isDone(server)) {
+            step(client, empty, clientToServer, serverToClient, sink);
+            step(server, empty, serverToClient, clientToServer, sink);
+        }
+    }
+
+    private static void step(SSLEngine engine, ByteBuffer empty, ByteBuffer out, ByteBuffer in, ByteBuffer sink)
+            throws SSLException {
+        switch (engine.getHandshakeStatus()) {
+            case NEED_WRAP -> engine.wrap(empty, out);
+            case NEED_UNWRAP, NEED_UNWRAP_AGAIN -> {
+                in.flip();
+                engine.unwrap(in, sink);
+                in.compact();
+                sink.clear();
+            }
+            case NEED_TASK -> {
+                Runnable task;
+                while ((task = engine.getDelegatedTask()) != null) {
+                    task.run();
+                }
+            }
+            default -> {}
+        }
+    }
+
+    private static boolean isDone(SSLEngine engine) {
+        HandshakeStatus status = engine.getHandshakeStatus();
+        return status == HandshakeStatus.FINISHED || status == HandshakeStatus.NOT_HANDSHAKING;
+    }
+
+    private static final class TrustAllTrustManager implements X509TrustManager {
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {}
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {}
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.tls;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class TlsMetricsTests {
+    @Test
+    void testCountsFullAndResumedHandshakes(@TempDir Path securityDir) throws Exception {
+        Files.writeString(securityDir.resolve("key.pem"), TransportLayerSecurityTests.fixture("ec-sec1.pem"));
+        SSLContext server = SSLContext.getInstance("TLS");
+        server.init(new KeyManager[] {TransportLayerSecurity.createKeyManager(securityDir)}, null, null);
+        TlsMetrics metrics = new TlsMetrics();
+        SSLContext instrumented = metrics.instrument(server);
+        SSLContext client = Handshakes.trustingClient();
+
+        for (int i = 0; i < 3; i++) {
+            // the client only offers to resume sessions it has cached for the same peer; TLS 1.2 avoids
+            // having to exchange application data to deliver TLS 1.3 session tickets
+            SSLEngine clientEngine = client.createSSLEngine("localhost", 8443);
+            clientEngine.setEnabledProtocols(new String[] {"TLSv1.2"});
+            Handshakes.handshake(clientEngine, instrumented.createSSLEngine());
+        }
+
+        assertThat(metrics.fullHandshakes()).isEqualTo(1);
+        assertThat(metrics.resumedHandshakes()).isEqualTo(2);
+    }
+
+    @Test
+    void testCountsHandshakesWithoutResumptionAsFull(@TempDir Path securityDir) throws Exception {
+        Files.writeString(securityDir.resolve("key.pem"), TransportLayerSecurityTests.fixture("ec-sec1.pem"));
+        SSLContext server = SSLContext.getInstance("TLS");
+        server.init(new KeyManager[] {TransportLayerSecurity.createKeyManager(securityDir)}, null, null);
+        TlsMetrics metrics = new TlsMetrics();
+        SSLContext instrumented = metrics.instrument(server);
+        SSLContext client = Handshakes.trustingClient();
+
+        // engines without peer information never offer to resume, however quickly they follow
+        for (String protocol : new String[] {"TLSv1.2", "TLSv1.3"}) {
+            for (int i = 0; i < 5; i++) {
+                SSLEngine clientEngine = client.createSSLEngine();
+                clientEngine.setEnabledProtocols(new String[] {protocol});
+                Handshakes.handshake(clientEngine, instrumented.createSSLEngine());
+            }
+        }
+
+        assertThat(metrics.fullHandshakes()).isEqualTo(10);
+        assertThat(metrics.resumedHandshakes()).isZero();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.tls;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.markelliot.barista.tls.TransportLayerSecurity.TrustLoading;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.X509ExtendedKeyManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class TransportLayerSecurityTests {
+    @Test
+    void testReadsRsaAndEcKeysInEachPemFormat() throws IOException, GeneralSecurityException {
+        assertKeyAlgorithm("rsa-pkcs1.pem", "RSA");
+        assertKeyAlgorithm("rsa-pkcs8.pem", "RSA");
+        assertKeyAlgorithm("ec-sec1.pem", "EC");
+        assertKeyAlgorithm("ec-pkcs8.pem", "EC");
+    }
+
+    @Test
+    void testKeyManagerChoosesKeyByType(@TempDir Path securityDir) throws IOException {
+        Files.writeString(securityDir.resolve("key.pem"), fixture("rsa-pkcs1.pem"));
+        Files.writeString(securityDir.resolve("key-ec.pem"), fixture("ec-sec1.pem"));
+
+        X509ExtendedKeyManager keyManager = TransportLayerSecurity.createKeyManager(securityDir);
+        assertThat(keyManager.chooseEngineServerAlias("RSA", null, null)).endsWith("key.pem");
+        assertThat(keyManager.chooseEngineServerAlias("EC", null, null)).endsWith("key-ec.pem");
+    }
+
+    @Test
+    void testRejectsMalformedTrustMaterialWhenCreatingContext(@TempDir Path securityDir) throws IOException {
+        String pem = fixture("rsa-pkcs1.pem");
+        Files.writeString(securityDir.resolve("key.pem"), pem);
+        Files.writeString(securityDir.resolve("cas.pem"), pem.substring(pem.indexOf("-----BEGIN CERTIFICATE-----")));
+        Files.writeString(
+                securityDir.resolve("trust.pem"), "-----BEGIN CERTIFICATE-----\nAAAA\n-----END CERTIFICATE-----\n");
+
+        assertThatThrownBy(() -> TransportLayerSecurity.createSslContext(securityDir))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void testLazyTrustDoesNotParseCasUntilClientIsVerified(@TempDir Path securityDir) throws Exception {
+        String pem = fixture("rsa-pkcs1.pem");
+        Files.writeString(securityDir.resolve("key.pem"), pem);
+        Files.writeString(securityDir.resolve("trust.pem"), pem.substring(pem.indexOf("-----BEGIN CERTIFICATE-----")));
+        // a malformed CA bundle, which fails any attempt to parse it
+        Files.writeString(
+                securityDir.resolve("cas.pem"), "-----BEGIN CERTIFICATE-----\nAAAA\n-----END CERTIFICATE-----\n");
+
+        SSLContext server = TransportLayerSecurity.createSslContext(securityDir, TrustLoading.LAZY);
+        Handshakes.handshake(Handshakes.trustingClient().createSSLEngine(), server.createSSLEngine());
+
+        SSLEngine clientAuth = server.createSSLEngine();
+        clientAuth.setNeedClientAuth(true);
+        assertThatThrownBy(() -> Handshakes.handshake(
+                        Handshakes.trustingClient(TransportLayerSecurity.createKeyManager(securityDir))
+                                .createSSLEngine(),
+                        clientAuth))
+                .isInstanceOf(SSLException.class)
+                .hasStackTraceContaining("Unable to load trust material");
+    }
+
+    @Test
+    void testLazyTrustRejectsMissingCasWhenCreatingContext(@TempDir Path securityDir) throws IOException {
+        String pem = fixture("rsa-pkcs1.pem");
+        Files.writeString(securityDir.resolve("key.pem"), pem);
+        Files.writeString(securityDir.resolve("trust.pem"), pem.substring(pem.indexOf("-----BEGIN CERTIFICATE-----")));
+
+        assertThatThrownBy(() -> TransportLayerSecurity.createSslContext(securityDir, TrustLoading.LAZY))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("cas.pem");
+    }
+
+    private static void assertKeyAlgorithm(String fixture, String algorithm)
+            throws IOException, GeneralSecurityException {
+        PrivateKey key = TransportLayerSecurity.getPrivateKeyFromString(fixture(fixture));
+        assertThat(key.getAlgorithm()).isEqualTo(algorithm);
+    }
+
+    static String fixture(String name) throws IOException {
+        try (InputStream in = TransportLayerSecurityTests.class.getResourceAsStream("/tls/" + name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.unixsocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.markelliot.barista.HttpMethod;
+import com.markelliot.barista.Server;
+import com.markelliot.barista.endpoints.EndpointHandler;
+import com.markelliot.barista.endpoints.EndpointRuntime;
+import io.undertow.server.HttpHandler;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class UnixSocketListenerTests {
+    private static final String REQUEST = "GET /hello-world HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+    @Test
+    void testServesRequestsOnSocket(@TempDir Path dir) throws IOException {
+        Path socket = dir.resolve("barista.sock");
+        Server server = Server.builder()
+                .port(0)
+                .disableTls()
+                .unixSocket(socket)
+                .endpoints(() -> Set.of(helloWorld()))
+                .start();
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socket));
+            // twice, to check the connection is reused
+            for (int i = 0; i < 2; i++) {
+                channel.write(ByteBuffer.wrap(REQUEST.getBytes(StandardCharsets.US_ASCII)));
+                String response = readResponse(channel);
+                assertThat(response).startsWith("HTTP/1.1 200 OK").endsWith("\r\n\r\n\"Hello World\"");
+            }
+        } finally {
+            server.stop();
+        }
+        assertThat(socket).doesNotExist();
+    }
+
+    @Test
+    void testReplacesStaleSocket(@TempDir Path dir) throws IOException {
+        Path socket = dir.resolve("barista.sock");
+        // binding a channel leaves a socket file behind, as a crashed process would
+        try (SocketChannel stale = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            stale.bind(UnixDomainSocketAddress.of(socket));
+            Server server = Server.builder()
+                    .port(0)
+                    .disableTls()
+                    .unixSocket(socket)
+                    .endpoints(() -> Set.of(helloWorld()))
+                    .start();
+            try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+                channel.write(ByteBuffer.wrap(REQUEST.getBytes(StandardCharsets.US_ASCII)));
+                assertThat(readResponse(channel)).startsWith("HTTP/1.1 200 OK");
+            } finally {
+                server.stop();
+            }
+        }
+    }
+
+    /** Reads one response whose body is the 13 byte hello world string. */
+    private static String readResponse(SocketChannel channel) throws IOException {
+        StringBuilder response = new StringBuilder();
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        while (!response.toString().endsWith("\"Hello World\"")) {
+            buffer.clear();
+            if (channel.read(buffer) == -1) {
+                break;
+            }
+            buffer.flip();
+            response.append(StandardCharsets.US_ASCII.decode(buffer));
+        }
+        return response.toString();
+    }
+
+    private static EndpointHandler helloWorld() {
+        return new EndpointHandler() {
+            @Override
+            public HttpMethod method() {
+                return HttpMethod.GET;
+            }
+
+            @Override
+            public String route() {
+                return "/hello-world";
+            }
+
+            @Override
+            public HttpHandler handler(EndpointRuntime runtime) {
+                return exchange -> runtime.handle(() -> "Hello World", exchange);
+            }
+        };
+    }
+}
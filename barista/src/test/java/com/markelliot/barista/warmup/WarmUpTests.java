@@ -0,0 +1,76 @@
+/*
+ * (c) Copyright 2026 Mark Elliot. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.markelliot.barista.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.markelliot.barista.HttpMethod;
+import io.undertow.server.HttpHandler;
+import io.undertow.util.Headers;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xnio.OptionMap;
+import org.xnio.Xnio;
+import org.xnio.XnioWorker;
+
+final class WarmUpTests {
+    private XnioWorker worker;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        worker = Xnio.getInstance().createWorker(OptionMap.EMPTY);
+    }
+
+    @AfterEach
+    void afterEach() {
+        worker.shutdownNow();
+    }
+
+    @Test
+    void testReplaysRequestsThroughHandler() {
+        AtomicLong served = new AtomicLong();
+        Set<String> bodies = ConcurrentHashMap.newKeySet();
+        HttpHandler handler = exchange -> exchange.getRequestReceiver().receiveFullString((ex, body) -> {
+            served.incrementAndGet();
+            bodies.add(ex.getRequestMethod() + " " + ex.getRequestPath() + " " + body);
+            ex.setStatusCode(ex.getRequestPath().equals("/missing") ? 404 : 200);
+            ex.getResponseHeaders().put(Headers.CONTENT_TYPE, "text/plain");
+            ex.getResponseSender().send("ok");
+        });
+
+        WarmUp.Result result = WarmUp.run(
+                worker,
+                handler,
+                List.of(
+                        WarmUpRequest.of(HttpMethod.GET, "/hello"),
+                        WarmUpRequest.of(HttpMethod.POST, "/echo").withBody("\"hi\""),
+                        WarmUpRequest.of(HttpMethod.GET, "/missing")),
+                Duration.ofSeconds(3));
+
+        assertThat(result.requests()).isGreaterThanOrEqualTo(3).isEqualTo(served.get());
+        assertThat(result.failures()).isEqualTo(result.requests() / 3);
+        assertThat(bodies).containsExactlyInAnyOrder("GET /hello ", "POST /echo \"hi\"", "GET /missing ");
+        assertThat(result.elapsed()).isLessThan(Duration.ofSeconds(15));
+    }
+}